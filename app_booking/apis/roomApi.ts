@@ -8,7 +8,8 @@ export interface RoomResponse {
     capacity: number;
     hotelId: number;
     hotelName: string;
-    imageUrls: string[];
+    thumbnailUrl: string | null;   // Ảnh thu nhỏ cho danh sách
+    imageUrls?: string[];          // Chỉ có ở API chi tiết (getRoomById)
     rating: number | null;
     reviewCount: number | null;
 }
@@ -118,7 +118,7 @@ export default function HomeScreen(): React.JSX.Element {
       rating: item.rating ?? 0,
       reviewCount: item.reviewCount ?? 0,
       imageUrl:
-        (item.imageUrls && item.imageUrls.length > 0 ? item.imageUrls[0] : "") ||
+        item.thumbnailUrl ||
         "",
       isFavorite: false,
       isBooked: false,
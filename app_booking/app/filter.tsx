@@ -126,7 +126,7 @@ export default function FilterRoomScreen(): React.JSX.Element {
       rating: 0,
       reviewCount: 0,
       imageUrl:
-        (item.imageUrls && item.imageUrls.length > 0 ? item.imageUrls[0] : "") ||
+        item.thumbnailUrl ||
         "",
       isFavorite: false,
     }));
@@ -110,7 +110,7 @@ export default function SearchRoomScreen(): React.JSX.Element {
           price: item.price || 0,
           rating: item.rating ?? 0,
           reviewCount: item.reviewCount ?? 0,
-          imageUrl: (item.imageUrls && item.imageUrls.length > 0 ? item.imageUrls[0] : "") || "",
+          imageUrl: item.thumbnailUrl || "",
           isFavorite: false,
         })));
       } else {
@@ -121,7 +121,7 @@ export default function SearchRoomScreen(): React.JSX.Element {
           price: item.price || 0,
           rating: item.rating ?? 0,
           reviewCount: item.reviewCount ?? 0,
-          imageUrl: (item.imageUrls && item.imageUrls.length > 0 ? item.imageUrls[0] : "") || "",
+          imageUrl: item.thumbnailUrl || "",
           isFavorite: false,
         })));
       }
@@ -232,7 +232,7 @@ export default function SearchRoomScreen(): React.JSX.Element {
       price: item.price || 0,
       rating: item.rating ?? 0,
       reviewCount: item.reviewCount ?? 0,
-      imageUrl: (item.imageUrls && item.imageUrls.length > 0 ? item.imageUrls[0] : "") ||
+      imageUrl: item.thumbnailUrl ||
         "",
       isFavorite: false,
     }));
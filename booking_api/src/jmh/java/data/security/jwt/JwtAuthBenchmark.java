@@ -0,0 +1,61 @@
+package data.security.jwt;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import javax.crypto.SecretKey;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+
+/**
+ * So sánh chi phí xác thực JWT cho mỗi request.
+ * legacy: tạo lại key và parse token hai lần (validateToken + getUsernameFromToken) như trước đây.
+ * singlePass: key, parser dựng sẵn và parse một lần qua JWTProvider.parseClaims.
+ *
+ * Chạy: ./gradlew jmh
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JwtAuthBenchmark {
+
+    private static final String SECRET = "UhsjdiWnsm38sdiWnsdlsnqowqixcm29dkslqoweuWOSDLXCMZOWXLSKDPWQOSDLKXMSOWQP";
+
+    private JWTProvider provider;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        provider = new JWTProvider(SECRET, 86400000L, 86400000L);
+        token = provider.generateToken("user@example.com", "");
+    }
+
+    private static SecretKey legacyKey() {
+        return Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Benchmark
+    public String legacy() {
+        Jwts.parserBuilder().setSigningKey(legacyKey()).build().parseClaimsJws(token);
+        return Jwts.parserBuilder().setSigningKey(legacyKey()).build()
+                .parseClaimsJws(token)
+                .getBody()
+                .getSubject();
+    }
+
+    @Benchmark
+    public String singlePass() {
+        Claims claims = provider.parseClaims(token);
+        return claims.getSubject();
+    }
+}
@@ -0,0 +1,80 @@
+package data.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import data.dto.response.HotelResponseDTO;
+import data.dto.response.RoomResponseDTO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.time.Duration;
+import java.util.List;
+
+@Configuration
+@EnableCaching
+@Slf4j
+public class CacheConfig {
+
+    public static final String HOTEL_DETAIL = "hotelDetail";
+    public static final String ROOM_DETAIL = "roomDetail";
+
+    @Value("${cache.detail.max-size:5000}")
+    private long maxSize;
+
+    @Value("${cache.detail.ttl:10m}")
+    private Duration ttl;
+
+    @Bean
+    public CacheManager cacheManager() {
+        CaffeineCacheManager manager = new CaffeineCacheManager() {
+            @Override
+            protected Cache adaptCaffeineCache(String name, com.github.benmanes.caffeine.cache.Cache<Object, Object> cache) {
+                return new VersionedCopyingCache(super.adaptCaffeineCache(name, cache), CacheConfig::copyDetail);
+            }
+        };
+        manager.setCaffeine(Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats());
+        manager.setCacheNames(List.of(HOTEL_DETAIL, ROOM_DETAIL));
+        manager.setAllowNullValues(false);
+        return manager;
+    }
+
+    // DTO trong cache không bao giờ được trả ra trực tiếp; danh sách ảnh được chép thành list không sửa được
+    static Object copyDetail(Object value) {
+        if (value instanceof HotelResponseDTO hotel) {
+            return hotel.toBuilder()
+                    .imageUrls(hotel.getImageUrls() == null ? null : List.copyOf(hotel.getImageUrls()))
+                    .build();
+        }
+        if (value instanceof RoomResponseDTO room) {
+            return room.toBuilder()
+                    .imageUrls(room.getImageUrls() == null ? null : List.copyOf(room.getImageUrls()))
+                    .build();
+        }
+        return value;
+    }
+
+    // Ghi log tỉ lệ hit/miss định kỳ để theo dõi hiệu quả cache
+    @Scheduled(fixedDelayString = "${cache.detail.stats-interval:PT5M}", initialDelayString = "${cache.detail.stats-interval:PT5M}")
+    public void logStats() {
+        CacheManager cacheManager = cacheManager();
+        for (String name : cacheManager.getCacheNames()) {
+            Cache cache = cacheManager.getCache(name);
+            if (cache != null && cache.getNativeCache() instanceof com.github.benmanes.caffeine.cache.Cache<?, ?> nativeCache) {
+                CacheStats stats = nativeCache.stats();
+                log.info("Cache {}: size={}, hits={}, misses={}, hitRate={}, evictions={}",
+                        name, nativeCache.estimatedSize(), stats.hitCount(), stats.missCount(),
+                        String.format("%.2f", stats.hitRate()), stats.evictionCount());
+            }
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package data.config;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.UnaryOperator;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleValueWrapper;
+
+/**
+ * Bọc cache DTO chi tiết:
+ * - Lưu và trả về bản sao, để caller sửa DTO (vd. set rating) không làm hỏng bản đang nằm trong cache.
+ * - Mỗi lần evict/clear tăng version. Giá trị được nạp sau một lần miss chỉ được put nếu từ lúc miss tới lúc put
+ *   không có evict nào, nên request đọc dữ liệu cũ trước commit không ghi đè lại sau khi cache đã bị xóa.
+ */
+class VersionedCopyingCache implements Cache {
+
+    private final Cache delegate;
+    private final UnaryOperator<Object> copier;
+    private final AtomicLong version = new AtomicLong();
+    // version tại lần miss gần nhất của thread hiện tại (@Cacheable gọi get rồi put trên cùng thread)
+    private final ThreadLocal<Long> missVersion = new ThreadLocal<>();
+
+    VersionedCopyingCache(Cache delegate, UnaryOperator<Object> copier) {
+        this.delegate = delegate;
+        this.copier = copier;
+    }
+
+    @Override
+    public String getName() {
+        return delegate.getName();
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return delegate.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        ValueWrapper wrapper = delegate.get(key);
+        if (wrapper == null) {
+            missVersion.set(version.get());
+            return null;
+        }
+        return new SimpleValueWrapper(copy(wrapper.get()));
+    }
+
+    @Override
+    public <T> T get(Object key, Class<T> type) {
+        T value = delegate.get(key, type);
+        if (value == null) {
+            missVersion.set(version.get());
+            return null;
+        }
+        return type.cast(copy(value));
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        return (T) copy(delegate.get(key, valueLoader));
+    }
+
+    @Override
+    public synchronized void put(Object key, Object value) {
+        Long seen = missVersion.get();
+        missVersion.remove();
+        if (seen != null && seen != version.get()) {
+            // Đã có evict sau lúc miss: giá trị này có thể được đọc trước commit, bỏ qua
+            return;
+        }
+        delegate.put(key, copy(value));
+    }
+
+    @Override
+    public synchronized ValueWrapper putIfAbsent(Object key, Object value) {
+        ValueWrapper existing = delegate.putIfAbsent(key, copy(value));
+        return existing == null ? null : new SimpleValueWrapper(copy(existing.get()));
+    }
+
+    @Override
+    public synchronized void evict(Object key) {
+        version.incrementAndGet();
+        delegate.evict(key);
+    }
+
+    @Override
+    public synchronized boolean evictIfPresent(Object key) {
+        version.incrementAndGet();
+        return delegate.evictIfPresent(key);
+    }
+
+    @Override
+    public synchronized void clear() {
+        version.incrementAndGet();
+        delegate.clear();
+    }
+
+    @Override
+    public synchronized boolean invalidate() {
+        version.incrementAndGet();
+        return delegate.invalidate();
+    }
+
+    private Object copy(Object value) {
+        return value == null ? null : copier.apply(value);
+    }
+}
@@ -6,7 +6,6 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestParam;
@@ -31,11 +30,16 @@ import data.dto.response.APIResponse;
 import data.dto.response.JWTResponse;
 import data.dto.response.UserResponseDTO;
 import data.entity.User;
+import data.exception.ServiceBusyException;
 import data.mapper.UserMapper;
 import data.repository.UserRepository;
+import data.security.config.BoundedPasswordEncoder;
 import data.security.jwt.JWTProvider;
+import data.security.jwt.VerifiedTokenCache;
+import data.security.pricipal.PrincipalCache;
 import data.service.OtpService;
 import data.service.UserService;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -53,8 +57,9 @@ public class AccountController {
     private final AuthenticationManager authManager;
     private final UserRepository userRepository;
     private final JWTProvider jwtProvider;
-    private final PasswordEncoder passwordEncoder;
     private final HttpServletRequest request;
+    private final PrincipalCache principalCache;
+    private final VerifiedTokenCache verifiedTokenCache;
 
     private static final String DEFAULT_AVATAR = "https://static.vecteezy.com/system/resources/thumbnails/009/292/244/small/default-avatar-icon-of-social-media-user-vector.jpg";
 
@@ -90,6 +95,8 @@ public class AccountController {
             return ResponseEntity.ok(APIResponse.success(
                     Map.of("message", "Đăng ký hoàn tất thành công. Bạn có thể đăng nhập ngay."),
                     "Đăng ký hoàn tất thành công"));
+        } catch (ServiceBusyException e) {
+            throw e;
         } catch (RuntimeException e) {
             return ResponseEntity.status(400)
                     .body(APIResponse.error(e.getMessage(), null));
@@ -146,14 +153,28 @@ public class AccountController {
     @PostMapping("/refresh")
     public ResponseEntity<?> refresh(@Valid @RequestBody RefreshTokenRequest body) {
         String refreshToken = body.getRefreshToken();
-        if (refreshToken == null || !jwtProvider.validateToken(refreshToken)) {
+        Claims claims = refreshToken != null ? verifiedTokenCache.resolve(refreshToken) : null;
+        if (claims == null) {
             return ResponseEntity.status(401).body(Map.of("message", "Refresh token không hợp lệ"));
         }
-        String email = jwtProvider.getUsernameFromToken(refreshToken);
+        String email = claims.getSubject();
         String newAccessToken = jwtProvider.generateToken(email, "");
         return ResponseEntity.ok(Map.of("token", newAccessToken));
     }
 
+    // Thu hồi access token (header) và refresh token (body, nếu có)
+    @PostMapping("/logout")
+    public ResponseEntity<APIResponse<Void>> logout(@RequestBody(required = false) RefreshTokenRequest body) {
+        String accessToken = jwtProvider.extractToken(request);
+        if (accessToken != null) {
+            verifiedTokenCache.revoke(accessToken);
+        }
+        if (body != null && body.getRefreshToken() != null) {
+            verifiedTokenCache.revoke(body.getRefreshToken());
+        }
+        return ResponseEntity.ok(APIResponse.success(null, "Đăng xuất thành công"));
+    }
+
     @PostMapping("/google")
     public ResponseEntity<?> googleSignIn(@RequestBody Map<String, String> request) {
         try {
@@ -196,8 +217,8 @@ public class AccountController {
                     String picture = googleUserInfo.get("picture") != null ? (String) googleUserInfo.get("picture") : DEFAULT_AVATAR;
                     user.setAvatar(picture);
                     user.setEnabled(true);
-                    // Tạo password ngẫu nhiên (user sẽ không dùng password để login)
-                    user.setPasswordHash(passwordEncoder.encode("GOOGLE_AUTH_" + System.currentTimeMillis()));
+                    // User Google không dùng password để login
+                    user.setPasswordHash(BoundedPasswordEncoder.UNSET_PASSWORD);
                     user = userRepository.save(user);
                     log.info("Created new user from Google Sign-In: {}", email);
                 } else {
@@ -205,12 +226,14 @@ public class AccountController {
                     if (fullName != null && !fullName.equals(user.getFullName())) {
                         user.setFullName(fullName);
                         userRepository.save(user);
+                        principalCache.invalidate(user.getEmail());
                     }
                 }
 
                 if (!user.isEnabled()) {
                     user.setEnabled(true);
                     userRepository.save(user);
+                    principalCache.invalidate(user.getEmail());
                 }
 
                 // Tạo JWT tokens
@@ -242,7 +265,9 @@ public class AccountController {
     public ResponseEntity<APIResponse<UserResponseDTO>> uploadAvatar(@RequestParam("file") MultipartFile file) {
         try {
             UserResponseDTO dto = userService.updateAvatar(file);
-            return ResponseEntity.ok(APIResponse.success(dto, "Upload avatar thành công"));
+            return ResponseEntity.accepted().body(APIResponse.success(dto, "Đã nhận ảnh, avatar sẽ được cập nhật sau khi xử lý xong"));
+        } catch (ServiceBusyException e) {
+            throw e;
         } catch (RuntimeException e) {
             return ResponseEntity.status(400).body(APIResponse.error(e.getMessage(), null));
         }
@@ -282,6 +307,8 @@ public class AccountController {
             return ResponseEntity.ok(APIResponse.success(
                 Map.of("message", "Đổi mật khẩu thành công"),
                 "Đổi mật khẩu thành công"));
+        } catch (ServiceBusyException e) {
+            throw e;
         } catch (RuntimeException e) {
             return ResponseEntity.status(400)
                 .body(APIResponse.error(e.getMessage(), null));
@@ -308,6 +335,8 @@ public class AccountController {
             return ResponseEntity.ok(APIResponse.success(
                 Map.of("message", "Đặt lại mật khẩu thành công"),
                 "Đặt lại mật khẩu thành công"));
+        } catch (ServiceBusyException e) {
+            throw e;
         } catch (RuntimeException e) {
             return ResponseEntity.status(400)
                 .body(APIResponse.error(e.getMessage(), null));
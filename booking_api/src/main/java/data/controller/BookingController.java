@@ -5,7 +5,6 @@ import data.dto.response.APIResponse;
 import data.dto.response.BookingResponseDTO;
 import data.service.BookingService;
 import data.service.UserService;
-import data.entity.User;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
@@ -36,8 +35,8 @@ public class BookingController {
     @GetMapping("/upcoming")
     public ResponseEntity<APIResponse<List<BookingResponseDTO>>> getUpcomingBookings() {
         try {
-            User user = userService.getCurrentUser();
-            List<BookingResponseDTO> bookings = bookingService.getUpcomingBookings(user.getUserId());
+            Integer userId = userService.getCurrentUserId();
+            List<BookingResponseDTO> bookings = bookingService.getUpcomingBookings(userId);
             return ResponseEntity.ok(APIResponse.success(bookings, "Lấy danh sách booking sắp tới thành công"));
         } catch (RuntimeException e) {
             return ResponseEntity.status(400)
@@ -48,8 +47,8 @@ public class BookingController {
     @GetMapping("/past")
     public ResponseEntity<APIResponse<List<BookingResponseDTO>>> getPastBookings() {
         try {
-            User user = userService.getCurrentUser();
-            List<BookingResponseDTO> bookings = bookingService.getPastBookings(user.getUserId());
+            Integer userId = userService.getCurrentUserId();
+            List<BookingResponseDTO> bookings = bookingService.getPastBookings(userId);
             return ResponseEntity.ok(APIResponse.success(bookings, "Lấy danh sách booking đã qua thành công"));
         } catch (RuntimeException e) {
             return ResponseEntity.status(400)
@@ -93,8 +92,8 @@ public class BookingController {
     @GetMapping
     public ResponseEntity<APIResponse<List<BookingResponseDTO>>> getUserBookings() {
         try {
-            User user = userService.getCurrentUser();
-            List<BookingResponseDTO> bookings = bookingService.getUserBookings(user.getUserId());
+            Integer userId = userService.getCurrentUserId();
+            List<BookingResponseDTO> bookings = bookingService.getUserBookings(userId);
             return ResponseEntity.ok(APIResponse.success(bookings, "Lấy danh sách booking thành công"));
         } catch (RuntimeException e) {
             return ResponseEntity.status(400)
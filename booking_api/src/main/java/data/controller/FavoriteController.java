@@ -4,7 +4,6 @@ import data.dto.response.APIResponse;
 import data.dto.response.FavoriteResponseDTO;
 import data.service.FavoriteService;
 import data.service.UserService;
-import data.entity.User;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -23,8 +22,8 @@ public class FavoriteController {
     @GetMapping
     public ResponseEntity<APIResponse<List<FavoriteResponseDTO>>> getUserFavorites() {
         try {
-            User user = userService.getCurrentUser();
-            List<FavoriteResponseDTO> favorites = favoriteService.getUserFavorites(user.getUserId());
+            Integer userId = userService.getCurrentUserId();
+            List<FavoriteResponseDTO> favorites = favoriteService.getUserFavorites(userId);
             return ResponseEntity.ok(APIResponse.success(favorites, "Lấy danh sách yêu thích thành công"));
         } catch (RuntimeException e) {
             return ResponseEntity.status(400)
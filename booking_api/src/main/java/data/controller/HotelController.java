@@ -1,6 +1,7 @@
 package data.controller;
 
 import data.dto.response.APIResponse;
+import data.dto.response.CursorPageResponse;
 import data.dto.response.HotelResponseDTO;
 import data.service.HotelService;
 import lombok.RequiredArgsConstructor;
@@ -41,6 +42,26 @@ public class HotelController {
         return ResponseEntity.ok(APIResponse.success(hotels, "Tìm kiếm khách sạn thành công"));
     }
     
+    @GetMapping("/page")
+    public ResponseEntity<APIResponse<CursorPageResponse<HotelResponseDTO>>> getHotelsPage(
+        @RequestParam(required = false) Integer cursor,
+        @RequestParam(required = false) Integer size
+    ) {
+        CursorPageResponse<HotelResponseDTO> page = hotelService.getHotelsPage(cursor, size);
+        return ResponseEntity.ok(APIResponse.success(page, "Lấy danh sách khách sạn thành công"));
+    }
+    
+    @GetMapping("/search/page")
+    public ResponseEntity<APIResponse<CursorPageResponse<HotelResponseDTO>>> searchHotelsPage(
+        @RequestParam(required = false) String keyword,
+        @RequestParam(required = false) String city,
+        @RequestParam(required = false) Integer cursor,
+        @RequestParam(required = false) Integer size
+    ) {
+        CursorPageResponse<HotelResponseDTO> page = hotelService.searchHotelsPage(keyword, city, cursor, size);
+        return ResponseEntity.ok(APIResponse.success(page, "Tìm kiếm khách sạn thành công"));
+    }
+    
     @GetMapping("/{hotelId}")
     public ResponseEntity<APIResponse<HotelResponseDTO>> getHotelById(@PathVariable Integer hotelId) {
         HotelResponseDTO hotel = hotelService.getHotelById(hotelId);
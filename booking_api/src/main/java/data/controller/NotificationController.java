@@ -1,13 +1,18 @@
 package data.controller;
 
+import data.dto.request.MarkNotificationsReadRequest;
 import data.dto.response.APIResponse;
+import data.dto.response.CursorPageResponse;
 import data.dto.response.NotificationResponseDTO;
 import data.service.NotificationService;
+import data.service.NotificationStreamRegistry;
 import data.service.UserService;
-import data.entity.User;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
 
@@ -19,12 +24,20 @@ public class NotificationController {
     
     private final NotificationService notificationService;
     private final UserService userService;
+    private final NotificationStreamRegistry notificationStream;
+    
+    // SSE: event "notification" khi có thông báo mới, "unread-count" khi số chưa đọc thay đổi
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream() {
+        Integer userId = userService.getCurrentUserId();
+        return notificationStream.subscribe(userId, notificationService.getUnreadCount(userId));
+    }
     
     @GetMapping
     public ResponseEntity<APIResponse<List<NotificationResponseDTO>>> getUserNotifications() {
         try {
-            User user = userService.getCurrentUser();
-            List<NotificationResponseDTO> notifications = notificationService.getUserNotifications(user.getUserId());
+            Integer userId = userService.getCurrentUserId();
+            List<NotificationResponseDTO> notifications = notificationService.getUserNotifications(userId);
             return ResponseEntity.ok(APIResponse.success(notifications, "Lấy danh sách thông báo thành công"));
         } catch (RuntimeException e) {
             return ResponseEntity.status(400)
@@ -32,11 +45,26 @@ public class NotificationController {
         }
     }
     
+    @GetMapping("/page")
+    public ResponseEntity<APIResponse<CursorPageResponse<NotificationResponseDTO>>> getNotificationsPage(
+        @RequestParam(required = false) String cursor,
+        @RequestParam(required = false) Integer size
+    ) {
+        try {
+            Integer userId = userService.getCurrentUserId();
+            CursorPageResponse<NotificationResponseDTO> page = notificationService.getNotificationsPage(userId, cursor, size);
+            return ResponseEntity.ok(APIResponse.success(page, "Lấy danh sách thông báo thành công"));
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(400)
+                .body(APIResponse.error(e.getMessage(), null));
+        }
+    }
+    
     @GetMapping("/unread")
     public ResponseEntity<APIResponse<List<NotificationResponseDTO>>> getUnreadNotifications() {
         try {
-            User user = userService.getCurrentUser();
-            List<NotificationResponseDTO> notifications = notificationService.getUnreadNotifications(user.getUserId());
+            Integer userId = userService.getCurrentUserId();
+            List<NotificationResponseDTO> notifications = notificationService.getUnreadNotifications(userId);
             return ResponseEntity.ok(APIResponse.success(notifications, "Lấy danh sách thông báo chưa đọc thành công"));
         } catch (RuntimeException e) {
             return ResponseEntity.status(400)
@@ -47,8 +75,8 @@ public class NotificationController {
     @GetMapping("/unread-count")
     public ResponseEntity<APIResponse<Long>> getUnreadCount() {
         try {
-            User user = userService.getCurrentUser();
-            Long count = notificationService.getUnreadCount(user.getUserId());
+            Integer userId = userService.getCurrentUserId();
+            Long count = notificationService.getUnreadCount(userId);
             return ResponseEntity.ok(APIResponse.success(count, "Lấy số lượng thông báo chưa đọc thành công"));
         } catch (RuntimeException e) {
             return ResponseEntity.status(400)
@@ -67,11 +95,22 @@ public class NotificationController {
         }
     }
     
+    @PutMapping("/read")
+    public ResponseEntity<APIResponse<Long>> markAsRead(@Valid @RequestBody MarkNotificationsReadRequest request) {
+        try {
+            Long unreadCount = notificationService.markAsRead(request.getNotificationIds());
+            return ResponseEntity.ok(APIResponse.success(unreadCount, "Đánh dấu đã đọc thành công"));
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(400)
+                .body(APIResponse.error(e.getMessage(), null));
+        }
+    }
+    
     @PutMapping("/read-all")
     public ResponseEntity<APIResponse<String>> markAllAsRead() {
         try {
-            User user = userService.getCurrentUser();
-            notificationService.markAllAsRead(user.getUserId());
+            Integer userId = userService.getCurrentUserId();
+            notificationService.markAllAsRead(userId);
             return ResponseEntity.ok(APIResponse.success("OK", "Đánh dấu tất cả đã đọc thành công"));
         } catch (RuntimeException e) {
             return ResponseEntity.status(400)
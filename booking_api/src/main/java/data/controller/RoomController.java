@@ -1,12 +1,19 @@
 package data.controller;
 
 import data.dto.response.APIResponse;
+import data.dto.response.CursorPageResponse;
+import data.dto.response.RoomCalendarDTO;
 import data.dto.response.RoomResponseDTO;
 import data.service.RoomService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
 import org.springframework.http.ResponseEntity;
+import org.springframework.util.DigestUtils;
 import org.springframework.web.bind.annotation.*;
 
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
 import java.util.List;
 
 @RestController
@@ -22,6 +29,38 @@ public class RoomController {
         List<RoomResponseDTO> rooms = roomService.getAllRooms();
         return ResponseEntity.ok(APIResponse.success(rooms, "Lấy danh sách phòng thành công"));
     }
+    @GetMapping("/page")
+    public ResponseEntity<APIResponse<CursorPageResponse<RoomResponseDTO>>> getRoomsPage(
+        @RequestParam(required = false) Integer cursor,
+        @RequestParam(required = false) Integer size
+    ) {
+        CursorPageResponse<RoomResponseDTO> page = roomService.getRoomsPage(cursor, size);
+        return ResponseEntity.ok(APIResponse.success(page, "Lấy danh sách phòng thành công"));
+    }
+
+    @GetMapping("/available")
+    public ResponseEntity<APIResponse<CursorPageResponse<RoomResponseDTO>>> searchAvailableRooms(
+        @RequestParam String city,
+        @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate checkIn,
+        @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate checkOut,
+        @RequestParam(required = false) Integer guests,
+        @RequestParam(required = false) Integer cursor,
+        @RequestParam(required = false) Integer size
+    ) {
+        CursorPageResponse<RoomResponseDTO> page = roomService.searchAvailableRooms(city, checkIn, checkOut, guests, cursor, size);
+        return ResponseEntity.ok(APIResponse.success(page, "Tìm phòng trống thành công"));
+    }
+
+    @GetMapping("/hotel/{hotelId}/page")
+    public ResponseEntity<APIResponse<CursorPageResponse<RoomResponseDTO>>> getRoomsByHotelIdPage(
+        @PathVariable Integer hotelId,
+        @RequestParam(required = false) Integer cursor,
+        @RequestParam(required = false) Integer size
+    ) {
+        CursorPageResponse<RoomResponseDTO> page = roomService.getRoomsByHotelIdPage(hotelId, cursor, size);
+        return ResponseEntity.ok(APIResponse.success(page, "Lấy danh sách phòng theo khách sạn thành công"));
+    }
+
     @GetMapping("/hotel/{hotelId}")
     public ResponseEntity<APIResponse<List<RoomResponseDTO>>> getRoomsByHotelId(@PathVariable Integer hotelId) {
         List<RoomResponseDTO> rooms = roomService.getRoomsByHotelId(hotelId);
@@ -34,6 +73,27 @@ public class RoomController {
         return ResponseEntity.ok(APIResponse.success(room, "Lấy thông tin phòng thành công"));
     }
 
+    // ETag theo nội dung lịch: client gửi If-None-Match, lịch không đổi thì nhận 304
+    @GetMapping("/{roomId}/calendar")
+    public ResponseEntity<APIResponse<RoomCalendarDTO>> getRoomCalendar(
+        @PathVariable Integer roomId,
+        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to
+    ) {
+        RoomCalendarDTO calendar = roomService.getRoomCalendar(roomId, from, to);
+        StringBuilder content = new StringBuilder()
+            .append(calendar.getRoomId()).append('|')
+            .append(calendar.getFrom()).append('|')
+            .append(calendar.getTo());
+        calendar.getDays().forEach(day -> content.append(day.getAvailable() ? '0' : '1'));
+        String etag = "\"" + DigestUtils.md5DigestAsHex(content.toString().getBytes(StandardCharsets.UTF_8)) + "\"";
+
+        return ResponseEntity.ok()
+            .eTag(etag)
+            .cacheControl(CacheControl.noCache())
+            .body(APIResponse.success(calendar, "Lấy lịch phòng thành công"));
+    }
+
     @GetMapping("/search")
     public ResponseEntity<APIResponse<List<RoomResponseDTO>>> searchRooms(@RequestParam String keyword) {
         List<RoomResponseDTO> rooms = roomService.searchRooms(keyword);
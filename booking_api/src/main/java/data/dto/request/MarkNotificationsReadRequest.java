@@ -0,0 +1,21 @@
+package data.dto.request;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class MarkNotificationsReadRequest {
+
+    @NotEmpty(message = "Notification IDs are required")
+    @Size(max = 500, message = "At most 500 notifications per request")
+    private List<Integer> notificationIds;
+}
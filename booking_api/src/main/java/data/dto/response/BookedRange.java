@@ -0,0 +1,10 @@
+package data.dto.response;
+
+import java.time.LocalDate;
+
+// Projection (roomId, checkIn, checkOut) của các booking còn hiệu lực
+public interface BookedRange {
+    Integer getRoomId();
+    LocalDate getCheckIn();
+    LocalDate getCheckOut();
+}
@@ -0,0 +1,20 @@
+package data.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CursorPageResponse<T> {
+    private List<T> items;
+    // Truyền lại giá trị này vào tham số cursor để lấy trang tiếp theo, null nếu đã hết
+    private String nextCursor;
+    private Boolean hasMore;
+    private Integer size;
+}
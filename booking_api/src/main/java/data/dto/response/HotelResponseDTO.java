@@ -10,7 +10,7 @@ import java.util.List;
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
-@Builder
+@Builder(toBuilder = true)
 public class HotelResponseDTO {
     private Integer hotelId;
     private String hotelName;
@@ -20,6 +20,8 @@ public class HotelResponseDTO {
     private String description;
     private Double pricePerNight;
     private String mainImageUrl;
+    // Ảnh thu nhỏ cho danh sách; imageUrls chỉ có ở API chi tiết
+    private String thumbnailUrl;
     private List<String> imageUrls;
     private String ownerName;
 }
@@ -0,0 +1,7 @@
+package data.dto.response;
+
+// Projection (roomId, imageUrl) để nạp ảnh theo lô cho một trang phòng
+public interface RoomImageUrl {
+    Integer getRoomId();
+    String getImageUrl();
+}
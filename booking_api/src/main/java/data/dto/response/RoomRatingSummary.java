@@ -0,0 +1,8 @@
+package data.dto.response;
+
+// Projection cho truy vấn GROUP BY trên bảng reviews
+public interface RoomRatingSummary {
+    Integer getRoomId();
+    Long getReviewCount();
+    Long getRatingSum();
+}
@@ -7,13 +7,15 @@ import java.util.List;
 @Setter
 @NoArgsConstructor
 @AllArgsConstructor
-@Builder
+@Builder(toBuilder = true)
 public class RoomResponseDTO {
     private Integer roomId;
     private String roomType;
     private Double price;
     private Integer capacity;
     private String description;
+    // Ảnh thu nhỏ cho danh sách; imageUrls chỉ có ở API chi tiết
+    private String thumbnailUrl;
     private List<String> imageUrls;
     private Integer hotelId;
     private String hotelName;
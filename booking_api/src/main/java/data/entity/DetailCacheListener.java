@@ -0,0 +1,34 @@
+package data.entity;
+
+import data.service.DetailCacheInvalidator;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+// Hibernate lấy listener từ Spring container nên có thể inject bean
+@Component
+@RequiredArgsConstructor
+public class DetailCacheListener {
+
+    private final DetailCacheInvalidator invalidator;
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onChange(Object entity) {
+        if (entity instanceof Hotel hotel) {
+            invalidator.evictHotel(hotel.getHotelId());
+            invalidator.evictAllRooms();
+        } else if (entity instanceof HotelImage image && image.getHotel() != null) {
+            invalidator.evictHotel(image.getHotel().getHotelId());
+        } else if (entity instanceof Room room) {
+            invalidator.evictRoom(room.getRoomId());
+        } else if (entity instanceof RoomImage image && image.getRoom() != null) {
+            invalidator.evictRoom(image.getRoom().getRoomId());
+        } else if (entity instanceof Review review && review.getRoom() != null) {
+            invalidator.evictRoom(review.getRoom().getRoomId());
+        }
+    }
+}
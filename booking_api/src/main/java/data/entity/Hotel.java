@@ -7,7 +7,8 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "hotels")
+@EntityListeners(DetailCacheListener.class)
+@Table(name = "hotels", indexes = @Index(name = "idx_hotels_city", columnList = "city"))
 @Getter
 @Setter
 @NoArgsConstructor
@@ -5,19 +5,19 @@ import lombok.*;
 
 import java.time.LocalDateTime;
 
+// Bản ghi OTP cho JdbcOtpStore; key là số điện thoại (hoặc "uid:<userId>" nếu user chưa có số)
 @Getter
 @Setter
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
 @Entity
-@Table(name = "otp_codes")
+@Table(name = "otp_store", indexes = @Index(name = "idx_otp_store_expired", columnList = "expired_at"))
 public class Otp {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
-    @Column(name = "otp_id")
-    private Integer otpId;
+    @Column(name = "otp_key", length = 64)
+    private String otpKey;
 
     @Column(name = "otp_code", nullable = false, length = 10)
     private String otpCode;
@@ -27,8 +27,4 @@ public class Otp {
 
     @Column(name = "verified", nullable = false)
     private boolean verified = false;
-
-    @OneToOne
-    @JoinColumn(name = "user_id", referencedColumnName = "user_id")
-    private User user;
 }
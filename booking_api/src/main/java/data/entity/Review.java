@@ -7,6 +7,7 @@ import java.time.LocalDateTime;
 import java.util.List;
 
 @Entity
+@EntityListeners(DetailCacheListener.class)
 @Table(name = "reviews")
 @Getter
 @Setter
@@ -4,6 +4,7 @@ import jakarta.persistence.*;
 import lombok.*;
 
 @Entity
+@EntityListeners(DetailCacheListener.class)
 @Table(name = "room_images")
 @Getter
 @Setter
@@ -0,0 +1,33 @@
+package data.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDate;
+
+// Mỗi dòng là một đêm đã bị giữ của một phòng; unique (room_id, night) chặn đặt trùng
+@Entity
+@Table(name = "room_nights",
+        uniqueConstraints = @UniqueConstraint(name = "uk_room_nights_room_night", columnNames = {"room_id", "night"}),
+        indexes = @Index(name = "idx_room_nights_booking", columnList = "booking_id"))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RoomNight {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "room_night_id")
+    private Long roomNightId;
+
+    @Column(name = "room_id", nullable = false)
+    private Integer roomId;
+
+    @Column(name = "night", nullable = false)
+    private LocalDate night;
+
+    @Column(name = "booking_id", nullable = false)
+    private Integer bookingId;
+}
@@ -0,0 +1,38 @@
+package data.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+// Tổng hợp đánh giá theo phòng, được cập nhật mỗi khi review được tạo/sửa
+@Entity
+@Table(name = "room_ratings")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RoomRating {
+
+    @Id
+    @Column(name = "room_id")
+    private Integer roomId;
+
+    @Column(name = "review_count", nullable = false)
+    private Integer reviewCount;
+
+    @Column(name = "rating_sum", nullable = false)
+    private Long ratingSum;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @Transient
+    public Double getAverageRating() {
+        if (reviewCount == null || reviewCount == 0) {
+            return 0.0;
+        }
+        return ratingSum.doubleValue() / reviewCount;
+    }
+}
@@ -4,6 +4,7 @@ package data.entity;
 import data.utils.Role;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.DynamicUpdate;
 
 import java.time.LocalDate;
 import java.util.ArrayList;
@@ -16,6 +17,8 @@ import java.util.List;
 @Entity
 @Table(name = "users")
 @Builder
+// Chỉ UPDATE cột thay đổi, để lưu profile không ghi đè avatar vừa được worker upload cập nhật
+@DynamicUpdate
 public class User {
 
     @Id
@@ -47,9 +50,6 @@ public class User {
     @Column(name = "avatar", length = 500)
     private String avatar;
 
-    @OneToOne(mappedBy = "user", cascade = CascadeType.ALL)
-    private Otp otp;
-
     @OneToMany(mappedBy = "owner", cascade = CascadeType.ALL)
     private List<Hotel> hotels;
 
@@ -0,0 +1,15 @@
+package data.exception;
+
+// Hệ thống đang quá tải, client nên thử lại sau retryAfterSeconds giây (503)
+public class ServiceBusyException extends RuntimeException {
+    private final long retryAfterSeconds;
+
+    public ServiceBusyException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
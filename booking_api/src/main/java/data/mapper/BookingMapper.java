@@ -3,6 +3,7 @@ package data.mapper;
 import data.dto.response.BookingResponseDTO;
 import data.entity.Bookings;
 import data.entity.Room;
+import data.utils.ImageVariants;
 
 import java.util.List;
 import java.util.stream.Collectors;
@@ -17,7 +18,7 @@ public class BookingMapper {
         Room room = booking.getRoom();
         String roomImageUrl = null;
         if (room != null && room.getImages() != null && !room.getImages().isEmpty()) {
-            roomImageUrl = room.getImages().get(0).getImageUrl();
+            roomImageUrl = ImageVariants.thumbnail(room.getImages().get(0).getImageUrl());
         }
 
         // Calculate average rating and review count for hotel
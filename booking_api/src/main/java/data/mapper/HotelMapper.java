@@ -3,23 +3,19 @@ package data.mapper;
 import data.dto.response.HotelResponseDTO;
 import data.entity.Hotel;
 import data.entity.HotelImage;
+import data.utils.ImageVariants;
 
 import java.util.List;
 import java.util.stream.Collectors;
 
 public class HotelMapper {
     
+    // Dùng cho trang chi tiết: đầy đủ ảnh gốc
     public static HotelResponseDTO toDTO(Hotel hotel) {
         if (hotel == null) {
             return null;
         }
-        // ảnh hiiện chính
-        String mainImageUrl = hotel.getHotelImages() != null && !hotel.getHotelImages().isEmpty()
-            ? hotel.getHotelImages().stream()
-                .findFirst()
-                .orElse(hotel.getHotelImages().get(0))
-                .getImageUrl()
-            : null;
+        String mainImageUrl = mainImageUrl(hotel);
         // ảnh thông tin
         List<String> imageUrls = hotel.getHotelImages() != null
             ? hotel.getHotelImages().stream()
@@ -27,16 +23,20 @@ public class HotelMapper {
                 .collect(Collectors.toList())
             : List.of();
         
-        return HotelResponseDTO.builder()
-            .hotelId(hotel.getHotelId())
-            .hotelName(hotel.getHotelName())
-            .address(hotel.getAddress())
-            .city(hotel.getCity())
-            .country(hotel.getCountry())
-            .description(hotel.getDescription())
+        return baseBuilder(hotel)
             .mainImageUrl(mainImageUrl)
+            .thumbnailUrl(ImageVariants.thumbnail(mainImageUrl))
             .imageUrls(imageUrls)
-            .ownerName(hotel.getOwner() != null ? hotel.getOwner().getFullName() : null)
+            .build();
+    }
+
+    // Dùng cho danh sách: chỉ một ảnh thumbnail
+    public static HotelResponseDTO toListDTO(Hotel hotel) {
+        if (hotel == null) {
+            return null;
+        }
+        return baseBuilder(hotel)
+            .thumbnailUrl(ImageVariants.thumbnail(mainImageUrl(hotel)))
             .build();
     }
     
@@ -45,8 +45,25 @@ public class HotelMapper {
             return List.of();
         }
         return hotels.stream()
-            .map(HotelMapper::toDTO)
+            .map(HotelMapper::toListDTO)
             .collect(Collectors.toList());
     }
-}
 
+    // ảnh hiện chính
+    private static String mainImageUrl(Hotel hotel) {
+        return hotel.getHotelImages() != null && !hotel.getHotelImages().isEmpty()
+            ? hotel.getHotelImages().get(0).getImageUrl()
+            : null;
+    }
+
+    private static HotelResponseDTO.HotelResponseDTOBuilder baseBuilder(Hotel hotel) {
+        return HotelResponseDTO.builder()
+            .hotelId(hotel.getHotelId())
+            .hotelName(hotel.getHotelName())
+            .address(hotel.getAddress())
+            .city(hotel.getCity())
+            .country(hotel.getCountry())
+            .description(hotel.getDescription())
+            .ownerName(hotel.getOwner() != null ? hotel.getOwner().getFullName() : null);
+    }
+}
@@ -3,27 +3,58 @@ package data.mapper;
 import data.dto.response.RoomResponseDTO;
 import data.entity.Room;
 import data.entity.RoomImage;
+import data.utils.ImageVariants;
 
 import java.util.List;
 
 public class RoomMapper {
 
+    // Dùng cho trang chi tiết: đầy đủ ảnh gốc
     public static RoomResponseDTO toDTO(Room room) {
         if (room == null) return null;
 
+        List<String> imageUrls = room.getImages() != null
+                ? room.getImages().stream()
+                .map(RoomImage::getImageUrl)
+                .toList()
+                : List.of();
+
+        return baseBuilder(room)
+                .imageUrls(imageUrls)
+                .thumbnailUrl(ImageVariants.thumbnail(imageUrls.isEmpty() ? null : imageUrls.get(0)))
+                .build();
+    }
+
+    // Dùng cho danh sách: chỉ một ảnh thumbnail từ ảnh đầu tiên
+    public static RoomResponseDTO toListDTO(Room room, String firstImageUrl) {
+        if (room == null) return null;
+
+        return baseBuilder(room)
+                .thumbnailUrl(ImageVariants.thumbnail(firstImageUrl))
+                .build();
+    }
+
+    public static RoomResponseDTO toListDTO(Room room) {
+        if (room == null) return null;
+
+        return toListDTO(room,
+                room.getImages() != null && !room.getImages().isEmpty()
+                        ? room.getImages().get(0).getImageUrl()
+                        : null);
+    }
+
+    public static List<RoomResponseDTO> toDTOList(List<Room> rooms) {
+        return rooms == null ? List.of() :
+                rooms.stream().map(RoomMapper::toListDTO).toList();
+    }
+
+    private static RoomResponseDTO.RoomResponseDTOBuilder baseBuilder(Room room) {
         return RoomResponseDTO.builder()
                 .roomId(room.getRoomId())
                 .roomType(room.getRoomType())
                 .price(room.getPrice())
                 .capacity(room.getCapacity())
                 .description(room.getDescription())
-                .imageUrls(
-                        room.getImages() != null
-                                ? room.getImages().stream()
-                                .map(RoomImage::getImageUrl)
-                                .toList()
-                                : List.of()
-                )
                 .hotelId(
                         room.getHotel() != null
                                 ? room.getHotel().getHotelId()
@@ -35,12 +66,6 @@ public class RoomMapper {
                                 : null
                 )
                 .rating(null) // Will be set by service layer
-                .reviewCount(null) // Will be set by service layer
-                .build();
-    }
-
-    public static List<RoomResponseDTO> toDTOList(List<Room> rooms) {
-        return rooms == null ? List.of() :
-                rooms.stream().map(RoomMapper::toDTO).toList();
+                .reviewCount(null); // Will be set by service layer
     }
 }
@@ -0,0 +1,45 @@
+package data.repository;
+
+import data.entity.BookingOutbox;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface BookingOutboxRepository extends JpaRepository<BookingOutbox, Long> {
+
+    // SKIP LOCKED: nhiều instance cùng chạy dispatcher sẽ lấy các lô khác nhau
+    @Query(value = "SELECT * FROM booking_outbox WHERE processed_at IS NULL AND failed_at IS NULL ORDER BY outbox_id LIMIT :limit FOR UPDATE SKIP LOCKED",
+            nativeQuery = true)
+    List<BookingOutbox> lockPending(@Param("limit") int limit);
+
+    // Khóa đúng một sự kiện khi xử lý lại từng sự kiện sau khi cả lô bị lỗi
+    @Query(value = "SELECT * FROM booking_outbox WHERE outbox_id = :id AND processed_at IS NULL AND failed_at IS NULL FOR UPDATE SKIP LOCKED",
+            nativeQuery = true)
+    List<BookingOutbox> lockPendingById(@Param("id") Long id);
+
+    @Query(value = "SELECT outbox_id FROM booking_outbox WHERE processed_at IS NULL AND failed_at IS NULL ORDER BY outbox_id LIMIT :limit",
+            nativeQuery = true)
+    List<Long> findPendingIds(@Param("limit") int limit);
+
+    // Tăng số lần lỗi; tới maxAttempts thì chuyển sang dead-letter để không chặn các sự kiện phía sau
+    @Modifying
+    @Query("UPDATE BookingOutbox o SET o.attempts = o.attempts + 1, " +
+            "o.failedAt = CASE WHEN o.attempts + 1 >= :maxAttempts THEN :now ELSE NULL END " +
+            "WHERE o.outboxId = :id")
+    int recordFailure(@Param("id") Long id, @Param("maxAttempts") int maxAttempts, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE BookingOutbox o SET o.processedAt = :processedAt WHERE o.outboxId IN :ids")
+    int markProcessed(@Param("ids") Collection<Long> ids, @Param("processedAt") LocalDateTime processedAt);
+
+    @Modifying
+    @Query(value = "DELETE FROM booking_outbox WHERE processed_at < :before LIMIT :limit", nativeQuery = true)
+    int purgeProcessed(@Param("before") LocalDateTime before, @Param("limit") int limit);
+}
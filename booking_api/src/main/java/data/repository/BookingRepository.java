@@ -7,21 +7,39 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import data.dto.response.BookedRange;
 import data.entity.Bookings;
 import data.utils.BookingStatus;
 
 public interface BookingRepository extends JpaRepository<Bookings, Integer> {
     
-    List<Bookings> findByUser_UserId(Integer userId);
+    // Fetch join phòng, ảnh, khách sạn để mapper không phát sinh N+1
+    @Query("SELECT DISTINCT b FROM Bookings b JOIN FETCH b.user JOIN FETCH b.room r LEFT JOIN FETCH r.images "
+            + "LEFT JOIN FETCH r.hotel h LEFT JOIN FETCH h.owner WHERE b.user.userId = :userId")
+    List<Bookings> findByUser_UserId(@Param("userId") Integer userId);
 
-    @Query("SELECT b FROM Bookings b WHERE b.user.userId = :userId AND b.checkOut >= :today AND b.status IN ('PENDING', 'CONFIRMED') order by b.bookingId desc ")
+    @Query("SELECT DISTINCT b FROM Bookings b JOIN FETCH b.user JOIN FETCH b.room r LEFT JOIN FETCH r.images "
+            + "LEFT JOIN FETCH r.hotel h LEFT JOIN FETCH h.owner WHERE b.user.userId = :userId AND b.checkOut >= :today AND b.status IN ('PENDING', 'CONFIRMED') order by b.bookingId desc ")
     List<Bookings> findUpcomingBookings(@Param("userId") Integer userId, @Param("today") LocalDate today);
     
-    @Query("SELECT b FROM Bookings b WHERE b.user.userId = :userId AND b.checkOut < :today AND b.status IN ('PENDING', 'CONFIRMED') order by b.bookingId desc")
+    @Query("SELECT DISTINCT b FROM Bookings b JOIN FETCH b.user JOIN FETCH b.room r LEFT JOIN FETCH r.images "
+            + "LEFT JOIN FETCH r.hotel h LEFT JOIN FETCH h.owner WHERE b.user.userId = :userId AND b.checkOut < :today AND b.status IN ('PENDING', 'CONFIRMED') order by b.bookingId desc")
     List<Bookings> findPastBookings(@Param("userId") Integer userId, @Param("today") LocalDate today);
 
     
     @Query("SELECT b FROM Bookings b WHERE b.user.userId = :userId AND b.checkOut < :today AND b.status = :status")
     List<Bookings> findPastBookingsByStatus(@Param("userId") Integer userId, @Param("today") LocalDate today, @Param("status") BookingStatus status);
-}
 
+    @Query("SELECT b FROM Bookings b WHERE b.checkOut > :today AND b.status IN ('PENDING', 'CONFIRMED') "
+            + "AND NOT EXISTS (SELECT 1 FROM RoomNight n WHERE n.bookingId = b.bookingId) order by b.bookingId")
+    List<Bookings> findActiveBookingsWithoutNights(@Param("today") LocalDate today);
+
+    @Query("SELECT b.room.roomId AS roomId, b.checkIn AS checkIn, b.checkOut AS checkOut FROM Bookings b "
+            + "WHERE b.status IN ('PENDING', 'CONFIRMED') AND b.checkIn < :to AND b.checkOut > :from")
+    List<BookedRange> findActiveRangesBetween(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    // Dùng index idx_bookings_room_dates (room_id, check_in, check_out)
+    @Query("SELECT b.room.roomId AS roomId, b.checkIn AS checkIn, b.checkOut AS checkOut FROM Bookings b "
+            + "WHERE b.room.roomId = :roomId AND b.checkIn < :to AND b.checkOut > :from AND b.status IN ('PENDING', 'CONFIRMED')")
+    List<BookedRange> findActiveRangesForRoom(@Param("roomId") Integer roomId, @Param("from") LocalDate from, @Param("to") LocalDate to);
+}
@@ -12,7 +12,9 @@ import java.util.Optional;
 @Repository
 public interface FavoriteRepository extends JpaRepository<Favorite, Integer> {
     
-    List<Favorite> findByUser_UserIdOrderByCreatedAtDesc(Integer userId);
+    @Query("SELECT DISTINCT f FROM Favorite f JOIN FETCH f.user JOIN FETCH f.room r LEFT JOIN FETCH r.images "
+            + "LEFT JOIN FETCH r.hotel h LEFT JOIN FETCH h.owner WHERE f.user.userId = :userId ORDER BY f.createdAt DESC")
+    List<Favorite> findByUser_UserIdOrderByCreatedAtDesc(@Param("userId") Integer userId);
     
     Optional<Favorite> findByUser_UserIdAndRoom_RoomId(Integer userId, Integer roomId);
     
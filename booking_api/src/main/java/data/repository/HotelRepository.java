@@ -1,10 +1,13 @@
 package data.repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import data.entity.Hotel;
@@ -27,5 +30,19 @@ public interface HotelRepository extends JpaRepository<Hotel, Integer> {
     
     @Query("SELECT DISTINCT h FROM Hotel h LEFT JOIN FETCH h.hotelImages WHERE h.hotelId = :hotelId")
     Optional<Hotel> findByIdWithImages(Integer hotelId);
-}
 
+    // Phân trang 2 bước: bước 1 chỉ lấy id (LIMIT chạy ở SQL), bước 2 nạp ảnh + chủ KS cho các id đó
+    @Query("SELECT h.hotelId FROM Hotel h WHERE (:cursor IS NULL OR h.hotelId > :cursor) ORDER BY h.hotelId")
+    List<Integer> findIdPageAfter(@Param("cursor") Integer cursor, Pageable pageable);
+
+    @Query("SELECT h.hotelId FROM Hotel h WHERE h.city = :city AND (:cursor IS NULL OR h.hotelId > :cursor) ORDER BY h.hotelId")
+    List<Integer> findIdPageByCityAfter(@Param("city") String city, @Param("cursor") Integer cursor, Pageable pageable);
+
+    @Query("SELECT h.hotelId FROM Hotel h WHERE (h.hotelName LIKE %:keyword% OR h.address LIKE %:keyword% OR h.city LIKE %:keyword%) "
+            + "AND (:city IS NULL OR h.city = :city) AND (:cursor IS NULL OR h.hotelId > :cursor) ORDER BY h.hotelId")
+    List<Integer> searchIdPageAfter(@Param("keyword") String keyword, @Param("city") String city,
+                                    @Param("cursor") Integer cursor, Pageable pageable);
+
+    @Query("SELECT DISTINCT h FROM Hotel h LEFT JOIN FETCH h.hotelImages LEFT JOIN FETCH h.owner WHERE h.hotelId IN :hotelIds")
+    List<Hotel> findAllWithImagesByIdIn(@Param("hotelIds") Collection<Integer> hotelIds);
+}
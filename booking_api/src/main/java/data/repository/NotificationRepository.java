@@ -1,12 +1,16 @@
 package data.repository;
 
 import data.entity.Notification;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -20,10 +24,28 @@ public interface NotificationRepository extends JpaRepository<Notification, Inte
     @Query("UPDATE Notification n SET n.isRead = true WHERE n.user.userId = :userId")
     void markAllAsRead(@Param("userId") Integer userId);
     
+    // Chỉ cập nhật thông báo của chính user và còn chưa đọc; trả về số dòng thực sự đổi trạng thái
+    @Transactional
     @Modifying
-    @Query("UPDATE Notification n SET n.isRead = true WHERE n.notificationId = :notificationId AND n.user.userId = :userId")
-    void markAsRead(@Param("notificationId") Integer notificationId, @Param("userId") Integer userId);
+    @Query("UPDATE Notification n SET n.isRead = true "
+            + "WHERE n.user.userId = :userId AND n.isRead = false AND n.notificationId IN :notificationIds")
+    int markAsRead(@Param("notificationIds") Collection<Integer> notificationIds, @Param("userId") Integer userId);
     
     Long countByUser_UserIdAndIsReadFalse(Integer userId);
-}
 
+    // Keyset pagination trên index (user_id, created_at), notificationId để phân định các dòng cùng thời điểm
+    @Query("SELECT n FROM Notification n WHERE n.user.userId = :userId "
+            + "AND (:createdAt IS NULL OR n.createdAt < :createdAt OR (n.createdAt = :createdAt AND n.notificationId < :notificationId)) "
+            + "ORDER BY n.createdAt DESC, n.notificationId DESC")
+    List<Notification> findPageBefore(@Param("userId") Integer userId,
+                                      @Param("createdAt") LocalDateTime createdAt,
+                                      @Param("notificationId") Integer notificationId,
+                                      Pageable pageable);
+
+    // Mỗi lần gọi là một transaction ngắn, chỉ xóa tối đa :limit dòng
+    @Transactional
+    @Modifying
+    @Query(value = "DELETE FROM notifications WHERE is_read = true AND created_at < :before ORDER BY created_at LIMIT :limit",
+            nativeQuery = true)
+    int deleteReadBefore(@Param("before") LocalDateTime before, @Param("limit") int limit);
+}
@@ -1,22 +1,41 @@
 package data.repository;
 
-import java.util.Optional;
+import java.time.LocalDateTime;
 
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import data.entity.Otp;
-import data.entity.User;
 
 @Repository
-public interface OtpRepository extends JpaRepository<Otp, Integer> {
-    Optional<Otp> findByUser(User user);
-    Optional<Otp> findByOtpCodeAndUser(String otpCode, User user);
-    
+public interface OtpRepository extends JpaRepository<Otp, String> {
+
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO otp_store (otp_key, otp_code, expired_at, verified) VALUES (:otpKey, :otpCode, :expiredAt, false) "
+            + "ON DUPLICATE KEY UPDATE otp_code = VALUES(otp_code), expired_at = VALUES(expired_at), verified = false",
+            nativeQuery = true)
+    void upsert(@Param("otpKey") String otpKey, @Param("otpCode") String otpCode, @Param("expiredAt") LocalDateTime expiredAt);
+
+    // Kiểm tra và đánh dấu verified trong một câu UPDATE, tránh hai request cùng dùng một mã
+    @Transactional
+    @Modifying
+    @Query("UPDATE Otp o SET o.verified = true WHERE o.otpKey = :otpKey AND o.otpCode = :otpCode "
+            + "AND o.verified = false AND o.expiredAt > :now")
+    int markVerified(@Param("otpKey") String otpKey, @Param("otpCode") String otpCode, @Param("now") LocalDateTime now);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM Otp o WHERE o.otpKey = :otpKey")
+    void deleteByKey(@Param("otpKey") String otpKey);
+
+    // Dò theo index expired_at, không quét toàn bảng
+    @Transactional
     @Modifying
-    @Query("DELETE FROM Otp o WHERE o.user = :user")
-    void deleteByUser(@Param("user") User user);
+    @Query(value = "DELETE FROM otp_store WHERE expired_at < :now LIMIT :limit", nativeQuery = true)
+    int deleteExpired(@Param("now") LocalDateTime now, @Param("limit") int limit);
 }
@@ -1,9 +1,13 @@
 package data.repository;
 
+import java.util.Collection;
 import java.util.List;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import data.dto.response.RoomRatingSummary;
 import data.entity.Review;
 
 public interface ReviewRepository extends JpaRepository<Review, Integer> {
@@ -17,5 +21,8 @@ public interface ReviewRepository extends JpaRepository<Review, Integer> {
     boolean existsByUser_UserIdAndRoom_RoomId(Integer userId, Integer roomId);
 
     Review findByUser_UserIdAndRoom_RoomId(Integer userId, Integer roomId);
-}
 
+    @Query("SELECT r.room.roomId AS roomId, COUNT(r.rating) AS reviewCount, SUM(r.rating) AS ratingSum "
+            + "FROM Review r WHERE r.room.roomId IN :roomIds AND r.rating IS NOT NULL GROUP BY r.room.roomId")
+    List<RoomRatingSummary> summarizeByRoomIds(@Param("roomIds") Collection<Integer> roomIds);
+}
@@ -0,0 +1,21 @@
+package data.repository;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import data.dto.response.RoomImageUrl;
+import data.entity.RoomImage;
+
+@Repository
+public interface RoomImageRepository extends JpaRepository<RoomImage, Integer> {
+
+    // Chỉ ảnh đầu tiên (imageId nhỏ nhất) của mỗi phòng, dùng làm thumbnail cho danh sách
+    @Query("SELECT i.room.roomId AS roomId, i.imageUrl AS imageUrl FROM RoomImage i "
+            + "WHERE i.imageId IN (SELECT MIN(j.imageId) FROM RoomImage j WHERE j.room.roomId IN :roomIds GROUP BY j.room.roomId)")
+    List<RoomImageUrl> findFirstUrlsByRoomIds(@Param("roomIds") Collection<Integer> roomIds);
+}
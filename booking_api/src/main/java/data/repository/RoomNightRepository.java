@@ -0,0 +1,28 @@
+package data.repository;
+
+import java.time.LocalDate;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import data.entity.RoomNight;
+
+@Repository
+public interface RoomNightRepository extends JpaRepository<RoomNight, Long> {
+
+    // Trả về 1 nếu giữ được đêm, 0 nếu đêm đó đã thuộc booking khác (unique key)
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO room_nights (room_id, night, booking_id) VALUES (:roomId, :night, :bookingId)",
+            nativeQuery = true)
+    int claimNight(@Param("roomId") Integer roomId, @Param("night") LocalDate night, @Param("bookingId") Integer bookingId);
+
+    @Modifying
+    @Query("DELETE FROM RoomNight n WHERE n.bookingId = :bookingId")
+    int releaseBooking(@Param("bookingId") Integer bookingId);
+
+    @Query("SELECT COUNT(n) > 0 FROM RoomNight n WHERE n.roomId = :roomId AND n.night >= :checkIn AND n.night < :checkOut")
+    boolean existsOverlap(@Param("roomId") Integer roomId, @Param("checkIn") LocalDate checkIn, @Param("checkOut") LocalDate checkOut);
+}
@@ -0,0 +1,52 @@
+package data.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import data.entity.RoomRating;
+
+@Repository
+public interface RoomRatingRepository extends JpaRepository<RoomRating, Integer> {
+
+    // Upsert nguyên tử: tạo dòng tổng hợp nếu chưa có, ngược lại cộng dồn
+    @Modifying
+    @Query(value = "INSERT INTO room_ratings (room_id, review_count, rating_sum, updated_at) "
+            + "VALUES (:roomId, 1, :rating, NOW()) "
+            + "ON DUPLICATE KEY UPDATE review_count = review_count + 1, rating_sum = rating_sum + :rating, updated_at = NOW()",
+            nativeQuery = true)
+    void addRating(@Param("roomId") Integer roomId, @Param("rating") Integer rating);
+
+    @Modifying
+    @Query("UPDATE RoomRating r SET r.ratingSum = r.ratingSum + :delta, r.updatedAt = CURRENT_TIMESTAMP WHERE r.roomId = :roomId")
+    int adjustRatingSum(@Param("roomId") Integer roomId, @Param("delta") long delta);
+
+    // Tính lại toàn bộ bảng tổng hợp từ bảng reviews
+    @Modifying
+    @Query(value = "INSERT INTO room_ratings (room_id, review_count, rating_sum, updated_at) "
+            + "SELECT agg.room_id, agg.cnt, agg.total, NOW() FROM ("
+            + "SELECT room_id, COUNT(rating) AS cnt, SUM(rating) AS total FROM reviews "
+            + "WHERE room_id IS NOT NULL AND rating IS NOT NULL GROUP BY room_id) agg "
+            + "ON DUPLICATE KEY UPDATE review_count = agg.cnt, rating_sum = agg.total, updated_at = NOW()",
+            nativeQuery = true)
+    int rebuildFromReviews();
+
+    // Xóa dòng tổng hợp của phòng không còn review nào (rebuildFromReviews không chạm tới các phòng này)
+    @Modifying
+    @Query(value = "DELETE FROM room_ratings WHERE NOT EXISTS ("
+            + "SELECT 1 FROM reviews r WHERE r.room_id = room_ratings.room_id AND r.rating IS NOT NULL)",
+            nativeQuery = true)
+    int deleteWithoutReviews();
+
+    // Tính lại dòng tổng hợp của một phòng; luôn ghi một dòng (0 review nếu phòng không còn review)
+    @Modifying
+    @Query(value = "INSERT INTO room_ratings (room_id, review_count, rating_sum, updated_at) "
+            + "SELECT agg.room_id, agg.cnt, agg.total, NOW() FROM ("
+            + "SELECT :roomId AS room_id, COUNT(rating) AS cnt, COALESCE(SUM(rating), 0) AS total FROM reviews "
+            + "WHERE room_id = :roomId AND rating IS NOT NULL) agg "
+            + "ON DUPLICATE KEY UPDATE review_count = agg.cnt, rating_sum = agg.total, updated_at = NOW()",
+            nativeQuery = true)
+    int rebuildRoom(@Param("roomId") Integer roomId);
+}
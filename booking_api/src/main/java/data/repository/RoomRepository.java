@@ -1,24 +1,51 @@
 package data.repository;
 
 import data.entity.Room;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
 
 public interface RoomRepository extends JpaRepository<Room, Integer> {
 
-    @Query("SELECT DISTINCT r FROM Room r LEFT JOIN FETCH r.images")
+    @Query("SELECT DISTINCT r FROM Room r LEFT JOIN FETCH r.images "
+            + "LEFT JOIN FETCH r.hotel h LEFT JOIN FETCH h.owner")
     @Override
     List<Room> findAll();
 
-    @Query("SELECT DISTINCT r FROM Room r LEFT JOIN FETCH r.images WHERE r.hotel.hotelId = :hotelId")
+    @Query("SELECT DISTINCT r FROM Room r LEFT JOIN FETCH r.images "
+            + "LEFT JOIN FETCH r.hotel h LEFT JOIN FETCH h.owner WHERE h.hotelId = :hotelId")
     List<Room> findByHotel_HotelId(@Param("hotelId") Integer hotelId);
 
-    @Query("SELECT DISTINCT r FROM Room r LEFT JOIN FETCH r.images WHERE r.roomType LIKE %:keyword%")
+    @Query("SELECT DISTINCT r FROM Room r LEFT JOIN FETCH r.images "
+            + "LEFT JOIN FETCH r.hotel h LEFT JOIN FETCH h.owner WHERE r.roomType LIKE %:keyword%")
     List<Room> findByRoomTypeContainingIgnoreCase(@Param("keyword") String keyword);
 
-    @Query("SELECT DISTINCT r FROM Room r LEFT JOIN FETCH r.images WHERE r.roomId = :roomId")
+    @Query("SELECT DISTINCT r FROM Room r LEFT JOIN FETCH r.images "
+            + "LEFT JOIN FETCH r.hotel h LEFT JOIN FETCH h.owner WHERE r.roomId = :roomId")
     Optional<Room> findByRoomId(@Param("roomId") Integer roomId);
-}
\ No newline at end of file
+
+    // Keyset pagination theo roomId, không fetch join collection để LIMIT chạy ở SQL
+    @Query("SELECT r FROM Room r LEFT JOIN FETCH r.hotel h LEFT JOIN FETCH h.owner "
+            + "WHERE (:cursor IS NULL OR r.roomId > :cursor) ORDER BY r.roomId")
+    List<Room> findPageAfter(@Param("cursor") Integer cursor, Pageable pageable);
+
+    @Query("SELECT r FROM Room r LEFT JOIN FETCH r.hotel h LEFT JOIN FETCH h.owner "
+            + "WHERE h.hotelId = :hotelId AND (:cursor IS NULL OR r.roomId > :cursor) ORDER BY r.roomId")
+    List<Room> findPageByHotelAfter(@Param("hotelId") Integer hotelId, @Param("cursor") Integer cursor, Pageable pageable);
+
+    // Phòng còn trống: NOT EXISTS dò theo unique index (room_id, night) của room_nights
+    @Query("SELECT r FROM Room r JOIN FETCH r.hotel h LEFT JOIN FETCH h.owner "
+            + "WHERE h.city = :city AND r.capacity >= :guests AND (:cursor IS NULL OR r.roomId > :cursor) "
+            + "AND NOT EXISTS (SELECT 1 FROM RoomNight n WHERE n.roomId = r.roomId AND n.night >= :checkIn AND n.night < :checkOut) "
+            + "ORDER BY r.roomId")
+    List<Room> findAvailablePage(@Param("city") String city,
+                                 @Param("guests") Integer guests,
+                                 @Param("checkIn") LocalDate checkIn,
+                                 @Param("checkOut") LocalDate checkOut,
+                                 @Param("cursor") Integer cursor,
+                                 Pageable pageable);
+}
@@ -3,6 +3,10 @@ package data.repository;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import data.entity.User;
 
@@ -17,10 +21,20 @@ public interface UserRepository extends JpaRepository<User, Integer> {
 
     Optional<User> findByPhoneNumber(String phone);
 
+    // Chỉ lấy email (resend OTP), không nạp cả entity
+    @Query("SELECT u.email FROM User u WHERE u.phoneNumber = :phone")
+    Optional<String> findEmailByPhoneNumber(@Param("phone") String phone);
+
     boolean existsByEmail(String email);
 
     boolean existsByPhoneNumber(String phone);
 
+    // Gọi từ worker upload avatar, không cần nạp entity
+    @Transactional
+    @Modifying
+    @Query("UPDATE User u SET u.avatar = :avatar WHERE u.userId = :userId")
+    int updateAvatar(@Param("userId") Integer userId, @Param("avatar") String avatar);
+
     @Deprecated
     default boolean existsByUsername(String email) {
         return existsByEmail(email);
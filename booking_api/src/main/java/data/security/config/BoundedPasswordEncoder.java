@@ -0,0 +1,139 @@
+package data.security.config;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import data.exception.ServiceBusyException;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Chạy BCrypt trên một pool riêng có giới hạn số thread và hàng đợi, để một loạt login không chiếm hết
+ * thread của Tomcat cho việc băm mật khẩu. Khi hàng đợi đầy (hoặc chờ quá lâu) thì ném ServiceBusyException (503).
+ */
+@Slf4j
+public class BoundedPasswordEncoder implements PasswordEncoder {
+
+    // Giá trị password_hash cho tài khoản chưa đặt mật khẩu (đăng ký chờ OTP, Google Sign-In); không khớp với mật khẩu nào
+    public static final String UNSET_PASSWORD = "{unset}";
+
+    private final PasswordEncoder delegate;
+    private final ThreadPoolExecutor executor;
+    private final Duration timeout;
+
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder hashNanos = new LongAdder();
+    private final LongAdder waitNanos = new LongAdder();
+    private final AtomicLong maxHashNanos = new AtomicLong();
+
+    public BoundedPasswordEncoder(PasswordEncoder delegate, int threads, int queueCapacity, Duration timeout) {
+        this.delegate = delegate;
+        this.timeout = timeout;
+        AtomicInteger sequence = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hash-" + sequence.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return submit(() -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        if (encodedPassword == null || UNSET_PASSWORD.equals(encodedPassword)) {
+            return false;
+        }
+        return submit(() -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return !UNSET_PASSWORD.equals(encodedPassword) && delegate.upgradeEncoding(encodedPassword);
+    }
+
+    private <T> T submit(Callable<T> task) {
+        long submittedAt = System.nanoTime();
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                long startedAt = System.nanoTime();
+                try {
+                    return task.call();
+                } finally {
+                    record(startedAt - submittedAt, System.nanoTime() - startedAt);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw busy();
+        }
+
+        try {
+            return future.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            rejected.increment();
+            throw busy();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw busy();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private void record(long queuedNanos, long elapsedNanos) {
+        completed.increment();
+        waitNanos.add(queuedNanos);
+        hashNanos.add(elapsedNanos);
+        maxHashNanos.accumulateAndGet(elapsedNanos, Math::max);
+    }
+
+    private ServiceBusyException busy() {
+        return new ServiceBusyException("Hệ thống đang bận. Vui lòng thử lại sau giây lát",
+                Math.max(1, timeout.toSeconds()));
+    }
+
+    // Ghi log độ trễ băm và độ sâu hàng đợi định kỳ (số liệu cộng dồn, max tính lại mỗi kỳ)
+    @Scheduled(fixedDelayString = "${security.password-hash.stats-interval:PT5M}",
+            initialDelayString = "${security.password-hash.stats-interval:PT5M}")
+    public void logStats() {
+        long count = completed.sum();
+        log.info("Password hashing: completed={}, rejected={}, avgHashMs={}, maxHashMs={}, avgQueueWaitMs={}, queueDepth={}, active={}",
+                count, rejected.sum(),
+                count == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(hashNanos.sum() / count),
+                TimeUnit.NANOSECONDS.toMillis(maxHashNanos.getAndSet(0)),
+                count == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(waitNanos.sum() / count),
+                executor.getQueue().size(), executor.getActiveCount());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -1,6 +1,8 @@
 package data.security.config;
 
 import data.security.jwt.JWTAuthFilter;
+import data.security.ratelimit.RateLimitFilter;
+import jakarta.servlet.DispatcherType;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -48,39 +50,42 @@ public class SpringSecurity {
         return daoAuthenticationProvider;
     }
     @Bean
-    public SecurityFilterChain configure(HttpSecurity http, JWTAuthFilter jwtAuthFilter) throws Exception {
+    public SecurityFilterChain configure(HttpSecurity http, JWTAuthFilter jwtAuthFilter, RateLimitFilter rateLimitFilter) throws Exception {
         http
                 .cors(cors -> cors.configurationSource(corsConfigurationSource()))
                 .csrf(csrf -> csrf.disable())
                 .authorizeHttpRequests(auth -> auth
-    .requestMatchers(
-        "/api/v1/auth/me",
-        "/api/v1/auth/profile",
-        "/api/v1/auth/profile/avatar",
-        "/api/v1/auth/change-password"
-    ).authenticated()
-
-    .requestMatchers(
-        "/api/v1/auth/login",
-        "/api/v1/auth/register",
-        "/api/v1/auth/refresh-token"
-    ).permitAll()
-
-    .requestMatchers(
-        "/api/v1/hotels/**",
-        "/api/v1/rooms/**",
-        "/api/v1/reviews/**"
-    ).permitAll()
-
-    .anyRequest().authenticated()
-)
-
-
-
+                        // Dispatch ASYNC của SSE đã được xác thực ở request ban đầu
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+
+                        .requestMatchers(
+                            "/api/v1/auth/me",
+                            "/api/v1/auth/profile",
+                            "/api/v1/auth/profile/avatar",
+                            "/api/v1/auth/change-password"
+                        ).authenticated()
+
+                        .requestMatchers(
+                            "/api/v1/auth/login",
+                            "/api/v1/auth/register",
+                            "/api/v1/auth/refresh-token",
+                            "/api/v1/auth/logout"
+                        ).permitAll()
+
+                        .requestMatchers(
+                            "/api/v1/hotels/**",
+                            "/api/v1/rooms/**",
+                            "/api/v1/reviews/**"
+                        ).permitAll()
+
+                        .anyRequest().authenticated()
+                )
                 .exceptionHandling(ex -> ex.authenticationEntryPoint(authenticationEntryPoint()))
                 .sessionManagement(sess -> sess.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authenticationProvider(authenticationProvider())
-                .addFilterBefore(jwtAuthFilter, UsernamePasswordAuthenticationFilter.class);
+                .addFilterBefore(jwtAuthFilter, UsernamePasswordAuthenticationFilter.class)
+                // Chặn request vượt giới hạn trước khi parse JWT hay chạm DB
+                .addFilterBefore(rateLimitFilter, JWTAuthFilter.class);
 
         return http.build();
     }
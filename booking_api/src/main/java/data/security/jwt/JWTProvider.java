@@ -8,7 +8,9 @@ import javax.crypto.SecretKey;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.MalformedJwtException;
 import io.jsonwebtoken.SignatureAlgorithm;
@@ -21,16 +23,19 @@ import lombok.extern.slf4j.Slf4j;
 @Component
 @Slf4j
 public class JWTProvider {
-    @Value("${jwt.secret}")
-    private String jwtSecret;
-
-    @Value("${jwt.expire}")
-    private long jwtExpire;
-
-    @Value("${jwt.refresh}")
-    private long jwtRefresh;
-    private SecretKey getSecretKey() {
-        return Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
+    private final long jwtExpire;
+    private final long jwtRefresh;
+    // Key và parser chỉ tạo một lần, dùng lại cho mọi request (cả hai đều thread-safe)
+    private final SecretKey secretKey;
+    private final JwtParser jwtParser;
+
+    public JWTProvider(@Value("${jwt.secret}") String jwtSecret,
+                       @Value("${jwt.expire}") long jwtExpire,
+                       @Value("${jwt.refresh}") long jwtRefresh) {
+        this.jwtExpire = jwtExpire;
+        this.jwtRefresh = jwtRefresh;
+        this.secretKey = Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
+        this.jwtParser = Jwts.parserBuilder().setSigningKey(secretKey).build();
     }
 
     public String generateToken(String email, String role){
@@ -39,7 +44,7 @@ public class JWTProvider {
                 .setSubject(email)
                 .setIssuedAt(now)
                 .setExpiration(new Date(now.getTime() + jwtExpire))
-                .signWith(getSecretKey(), SignatureAlgorithm.HS512)
+                .signWith(secretKey, SignatureAlgorithm.HS512)
                 .compact();
     }
 
@@ -49,18 +54,15 @@ public class JWTProvider {
                 .setSubject(email)
                 .setIssuedAt(now)
                 .setExpiration(new Date(now.getTime() + jwtRefresh))
-                .signWith(getSecretKey(), SignatureAlgorithm.HS512)
+                .signWith(secretKey, SignatureAlgorithm.HS512)
                 .compact();
     }
 
 
-    public boolean validateToken(String token){
+    // Xác thực chữ ký và lấy claims trong một lần parse; token không hợp lệ thì trả về null
+    public Claims parseClaims(String token){
         try {
-            Jwts.parserBuilder()
-                    .setSigningKey(getSecretKey())
-                    .build()
-                    .parseClaimsJws(token);
-            return true;
+            return jwtParser.parseClaimsJws(token).getBody();
         } catch (ExpiredJwtException e){
             log.error("JWT token expired!");
         } catch (UnsupportedJwtException e){
@@ -72,28 +74,30 @@ public class JWTProvider {
         } catch (IllegalArgumentException e){
             log.error("JWT token argument error!");
         }
-        return false;
+        return null;
+    }
+
+    public boolean validateToken(String token){
+        return parseClaims(token) != null;
     }
 
 
     public String getUsernameFromToken(String token){
-        return Jwts.parserBuilder()
-                .setSigningKey(getSecretKey())
-                .build()
-                .parseClaimsJws(token)
+        return jwtParser.parseClaimsJws(token)
                 .getBody()
                 .getSubject();
     }
 
 
     public String refreshToken(String token, String email){
-        if (validateToken(token) && getUsernameFromToken(token).equals(email)) {
+        Claims claims = parseClaims(token);
+        if (claims != null && email.equals(claims.getSubject())) {
             Date now = new Date();
             return Jwts.builder()
                     .setSubject(email)
                     .setIssuedAt(now)
                     .setExpiration(new Date(now.getTime() + jwtRefresh))
-                    .signWith(getSecretKey(), SignatureAlgorithm.HS512)
+                    .signWith(secretKey, SignatureAlgorithm.HS512)
                     .compact();
         }
         return null;
@@ -0,0 +1,126 @@
+package data.security.jwt;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+
+import io.jsonwebtoken.Claims;
+
+/**
+ * Cache claims của các token đã xác thực, key là SHA-256 của token.
+ * Mỗi entry hết hạn đúng lúc token hết hạn (tối đa max-ttl), nên request lặp lại không phải kiểm tra chữ ký.
+ * Token bị thu hồi (logout) được giữ trong danh sách revoked tới đúng exp của token: danh sách này không bị
+ * giới hạn bởi max-ttl hay max-size, nên token đã logout không bao giờ được chấp nhận lại trước khi tự hết hạn.
+ */
+@Component
+public class VerifiedTokenCache {
+
+    private final JWTProvider jwtProvider;
+    private final boolean enabled;
+    private final long maxTtlNanos;
+    private final Cache<String, Claims> verified;
+    // hash token -> exp (epoch millis); dọn định kỳ khi token đã hết hạn
+    private final Map<String, Long> revoked = new ConcurrentHashMap<>();
+
+    public VerifiedTokenCache(JWTProvider jwtProvider,
+                              @Value("${jwt.verified-cache.enabled:false}") boolean enabled,
+                              @Value("${jwt.verified-cache.max-size:50000}") long maxSize,
+                              @Value("${jwt.verified-cache.max-ttl:15m}") Duration maxTtl) {
+        this.jwtProvider = jwtProvider;
+        this.enabled = enabled;
+        this.maxTtlNanos = maxTtl.toNanos();
+        this.verified = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new UntilExpiration<Claims>() {
+                    @Override
+                    long expiresAtMillis(Claims claims) {
+                        Date exp = claims.getExpiration();
+                        return exp != null ? exp.getTime() : System.currentTimeMillis();
+                    }
+                })
+                .build();
+    }
+
+    // Trả về claims nếu token hợp lệ và chưa bị thu hồi, ngược lại trả về null
+    public Claims resolve(String token) {
+        String key = hash(token);
+        if (revoked.containsKey(key)) {
+            return null;
+        }
+        if (!enabled) {
+            return jwtProvider.parseClaims(token);
+        }
+        Claims cached = verified.getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+        Claims claims = jwtProvider.parseClaims(token);
+        if (claims != null && claims.getExpiration() != null) {
+            verified.put(key, claims);
+        }
+        return claims;
+    }
+
+    public void revoke(String token) {
+        Claims claims = jwtProvider.parseClaims(token);
+        if (claims == null) {
+            return;
+        }
+        String key = hash(token);
+        verified.invalidate(key);
+        // Token không có exp thì không tự hết hạn, giữ trong danh sách revoked mãi
+        long exp = claims.getExpiration() != null ? claims.getExpiration().getTime() : Long.MAX_VALUE;
+        revoked.put(key, exp);
+    }
+
+    // Token đã hết hạn thì parseClaims tự từ chối, không cần giữ trong danh sách revoked nữa
+    @Scheduled(fixedDelayString = "${jwt.revoked.purge-interval:PT5M}")
+    public void purgeExpiredRevocations() {
+        long now = System.currentTimeMillis();
+        revoked.values().removeIf(exp -> exp <= now);
+    }
+
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private abstract class UntilExpiration<V> implements Expiry<String, V> {
+
+        abstract long expiresAtMillis(V value);
+
+        @Override
+        public long expireAfterCreate(String key, V value, long currentTime) {
+            long remaining = TimeUnit.MILLISECONDS.toNanos(expiresAtMillis(value) - System.currentTimeMillis());
+            return Math.max(0, Math.min(remaining, maxTtlNanos));
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, V value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, V value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
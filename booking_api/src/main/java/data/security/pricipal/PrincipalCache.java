@@ -0,0 +1,58 @@
+package data.security.pricipal;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import data.entity.User;
+import data.repository.UserRepository;
+import data.utils.TransactionHooks;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+
+// Cache principal theo email cho JWTAuthFilter; không lưu password hash vì filter không cần tới
+@Component
+public class PrincipalCache {
+
+    private record Snapshot(Integer userId, String email, String fullName, String phoneNumber) {
+    }
+
+    private final UserRepository userRepository;
+    private final Cache<String, Snapshot> cache;
+
+    public PrincipalCache(UserRepository userRepository,
+                          @Value("${security.principal-cache.max-size:10000}") long maxSize,
+                          @Value("${security.principal-cache.ttl:5m}") Duration ttl) {
+        this.userRepository = userRepository;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    public CustomUserDetails load(String email) {
+        Snapshot snapshot = cache.get(email, this::fetch);
+        return CustomUserDetails.builder()
+                .userId(snapshot.userId())
+                .username(snapshot.email())
+                .email(snapshot.email())
+                .fullName(snapshot.fullName())
+                .phoneNumber(snapshot.phoneNumber())
+                .authorities(List.of())
+                .build();
+    }
+
+    // Gọi sau khi đổi thông tin, mật khẩu hoặc trạng thái kích hoạt của user
+    public void invalidate(String email) {
+        if (email == null) return;
+        TransactionHooks.afterCommit(() -> cache.invalidate(email));
+    }
+
+    private Snapshot fetch(String email) {
+        User user = userRepository.findByEmail(email)
+                .orElseThrow(() -> new UsernameNotFoundException("Không tồn tại email: " + email));
+        return new Snapshot(user.getUserId(), user.getEmail(), user.getFullName(), user.getPhoneNumber());
+    }
+}
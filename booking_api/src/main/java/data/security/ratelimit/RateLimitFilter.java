@@ -0,0 +1,202 @@
+package data.security.ratelimit;
+
+import java.io.ByteArrayInputStream;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import data.dto.response.APIResponse;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Giới hạn tần suất cho các endpoint xác thực tốn tài nguyên (gửi OTP, đoán OTP, BCrypt khi login).
+ * Chạy trước JWTAuthFilter: kiểm tra theo IP trước, sau đó theo số điện thoại/email trong body.
+ * Request bị chặn trả 429 kèm Retry-After, không chạm tới DB.
+ */
+@Component
+@Slf4j
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    // Body của các request xác thực rất nhỏ; body lớn hơn bị từ chối (413) để không lách được giới hạn theo key
+    static final int MAX_BODY_BYTES = 8 * 1024;
+
+    // endpoint -> trường trong body dùng làm key
+    private record Rule(RateLimiter limiter, String field) {
+    }
+
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final RateLimiter ipLimiter;
+    private final Map<String, Rule> rules;
+
+    public RateLimitFilter(
+            ObjectMapper objectMapper,
+            @Value("${rate-limit.enabled:true}") boolean enabled,
+            @Value("${rate-limit.max-keys:100000}") long maxKeys,
+            @Value("${rate-limit.ip.capacity:30}") int ipCapacity,
+            @Value("${rate-limit.ip.period:PT1M}") Duration ipPeriod,
+            @Value("${rate-limit.otp-send.capacity:3}") int otpSendCapacity,
+            @Value("${rate-limit.otp-send.period:PT10M}") Duration otpSendPeriod,
+            @Value("${rate-limit.otp-verify.capacity:5}") int otpVerifyCapacity,
+            @Value("${rate-limit.otp-verify.period:PT5M}") Duration otpVerifyPeriod,
+            @Value("${rate-limit.login.capacity:10}") int loginCapacity,
+            @Value("${rate-limit.login.period:PT5M}") Duration loginPeriod) {
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.ipLimiter = new RateLimiter("ip", ipCapacity, ipPeriod, maxKeys);
+        RateLimiter otpSend = new RateLimiter("otp-send", otpSendCapacity, otpSendPeriod, maxKeys);
+        RateLimiter otpVerify = new RateLimiter("otp-verify", otpVerifyCapacity, otpVerifyPeriod, maxKeys);
+        RateLimiter login = new RateLimiter("login", loginCapacity, loginPeriod, maxKeys);
+        this.rules = Map.of(
+                "/api/v1/auth/register", new Rule(otpSend, "phoneNumber"),
+                "/api/v1/auth/resend-otp", new Rule(otpSend, "phoneNumber"),
+                "/api/v1/auth/forgot-password", new Rule(otpSend, "phoneNumber"),
+                "/api/v1/auth/verify-otp", new Rule(otpVerify, "phoneNumber"),
+                "/api/v1/auth/reset-password", new Rule(otpVerify, "phoneNumber"),
+                "/api/v1/auth/login", new Rule(login, "email"));
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled || !"POST".equals(request.getMethod()) || !rules.containsKey(request.getRequestURI());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        Duration wait = ipLimiter.tryAcquire(request.getRemoteAddr());
+        if (!wait.isZero()) {
+            reject(response, ipLimiter, request.getRemoteAddr(), wait);
+            return;
+        }
+
+        // Luôn đọc body (kể cả chunked, không có Content-Length), tối đa MAX_BODY_BYTES + 1 byte để phát hiện body quá lớn
+        byte[] body = request.getContentLengthLong() > MAX_BODY_BYTES
+                ? null
+                : request.getInputStream().readNBytes(MAX_BODY_BYTES + 1);
+        if (body == null || body.length > MAX_BODY_BYTES) {
+            log.warn("Rejecting {} body larger than {} bytes from {}", request.getRequestURI(), MAX_BODY_BYTES, request.getRemoteAddr());
+            writeError(response, HttpStatus.PAYLOAD_TOO_LARGE, "Dữ liệu gửi lên quá lớn");
+            return;
+        }
+
+        CachedBodyRequest cached = new CachedBodyRequest(request, body);
+        Rule rule = rules.get(request.getRequestURI());
+        String subject = readField(cached.body, rule.field());
+        if (subject != null) {
+            wait = rule.limiter().tryAcquire(subject);
+            if (!wait.isZero()) {
+                reject(response, rule.limiter(), subject, wait);
+                return;
+            }
+        }
+        filterChain.doFilter(cached, response);
+    }
+
+    private String readField(byte[] body, String field) {
+        try {
+            JsonNode value = objectMapper.readTree(body).get(field);
+            if (value == null || !value.isTextual() || value.asText().isBlank()) {
+                return null;
+            }
+            return value.asText().trim().toLowerCase(Locale.ROOT);
+        } catch (IOException | RuntimeException e) {
+            // Body sai định dạng: để controller trả lỗi validate như bình thường
+            return null;
+        }
+    }
+
+    private void reject(HttpServletResponse response, RateLimiter limiter, String key, Duration wait) throws IOException {
+        long retryAfterSeconds = Math.max(1, (wait.toMillis() + 999) / 1000);
+        log.warn("Rate limit '{}' exceeded for key {}, retry after {}s", limiter.getName(), key, retryAfterSeconds);
+        response.setHeader("Retry-After", String.valueOf(retryAfterSeconds));
+        writeError(response, HttpStatus.TOO_MANY_REQUESTS,
+                "Bạn thao tác quá nhiều lần. Vui lòng thử lại sau " + retryAfterSeconds + " giây");
+    }
+
+    private void writeError(HttpServletResponse response, HttpStatus status, String message) throws IOException {
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        objectMapper.writeValue(response.getOutputStream(), APIResponse.error(message, null));
+    }
+
+    // Giữ lại body đã đọc để controller vẫn đọc được @RequestBody
+    private static final class CachedBodyRequest extends HttpServletRequestWrapper {
+
+        private final byte[] body;
+
+        CachedBodyRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream input = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public boolean isFinished() {
+                    return input.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener readListener) {
+                    throw new UnsupportedOperationException();
+                }
+
+                @Override
+                public int read() {
+                    return input.read();
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    return input.read(b, off, len);
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            String encoding = getCharacterEncoding() != null ? getCharacterEncoding() : StandardCharsets.UTF_8.name();
+            return new BufferedReader(new InputStreamReader(getInputStream(), Charset.forName(encoding)));
+        }
+
+        @Override
+        public int getContentLength() {
+            return body.length;
+        }
+
+        @Override
+        public long getContentLengthLong() {
+            return body.length;
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package data.security.ratelimit;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * Một chính sách giới hạn (vd. "login theo email"): mỗi key có một TokenBucket riêng.
+ * Số key bị chặn bởi maximumSize; bucket không dùng quá một period đã hồi đầy nên bỏ đi cũng không đổi kết quả.
+ */
+public final class RateLimiter {
+
+    private final String name;
+    private final long intervalNanos;
+    private final long periodNanos;
+    private final Cache<String, TokenBucket> buckets;
+
+    public RateLimiter(String name, int capacity, Duration period, long maxKeys) {
+        if (capacity <= 0 || period.isZero() || period.isNegative()) {
+            throw new IllegalArgumentException("Cấu hình rate limit không hợp lệ: " + name);
+        }
+        this.name = name;
+        this.periodNanos = period.toNanos();
+        this.intervalNanos = periodNanos / capacity;
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maxKeys)
+                .expireAfterAccess(periodNanos, TimeUnit.NANOSECONDS)
+                .build();
+    }
+
+    // Trả về 0 nếu được phép, ngược lại là thời gian cần chờ
+    public Duration tryAcquire(String key) {
+        long now = System.nanoTime();
+        TokenBucket bucket = buckets.get(key, k -> new TokenBucket(intervalNanos, periodNanos, now));
+        return Duration.ofNanos(bucket.tryAcquire(now));
+    }
+
+    public String getName() {
+        return name;
+    }
+}
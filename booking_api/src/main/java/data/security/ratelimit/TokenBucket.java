@@ -0,0 +1,36 @@
+package data.security.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token bucket dạng GCRA: toàn bộ trạng thái là một mốc thời gian (theoretical arrival time) trong AtomicLong,
+ * cập nhật bằng CAS nên không cần khóa. Bucket đầy cho phép {@code capacity} request liên tiếp,
+ * sau đó hồi một token mỗi {@code period / capacity}.
+ */
+final class TokenBucket {
+
+    private final long intervalNanos;
+    private final long periodNanos;
+    private final AtomicLong theoreticalArrival;
+
+    TokenBucket(long intervalNanos, long periodNanos, long nowNanos) {
+        this.intervalNanos = intervalNanos;
+        this.periodNanos = periodNanos;
+        this.theoreticalArrival = new AtomicLong(nowNanos);
+    }
+
+    // Trả về 0 nếu lấy được token, ngược lại là số nano giây cần chờ
+    long tryAcquire(long nowNanos) {
+        while (true) {
+            long current = theoreticalArrival.get();
+            long next = Math.max(current, nowNanos) + intervalNanos;
+            long waitNanos = next - nowNanos - periodNanos;
+            if (waitNanos > 0) {
+                return waitNanos;
+            }
+            if (theoreticalArrival.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+}
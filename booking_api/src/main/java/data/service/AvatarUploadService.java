@@ -0,0 +1,187 @@
+package data.service;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.multipart.MultipartFile;
+
+import com.cloudinary.Cloudinary;
+import com.cloudinary.utils.ObjectUtils;
+
+import data.exception.ServiceBusyException;
+import data.repository.UserRepository;
+import data.utils.TransactionHooks;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Xử lý avatar ngoài request: file upload được chép (dạng stream) ra file tạm, sau commit thì một worker
+ * thu nhỏ ảnh về tối đa maxDimension px, nén lại JPEG, đẩy lên Cloudinary rồi mới cập nhật cột avatar.
+ * Không giữ toàn bộ ảnh trên heap của request và không giữ kết nối DB trong lúc gọi mạng.
+ */
+@Component
+@Slf4j
+public class AvatarUploadService {
+
+    private final Cloudinary cloudinary;
+    private final UserRepository userRepository;
+    private final int maxDimension;
+    private final float jpegQuality;
+    private final ThreadPoolExecutor executor;
+
+    public AvatarUploadService(Cloudinary cloudinary,
+                               UserRepository userRepository,
+                               @Value("${avatar.upload.max-dimension:512}") int maxDimension,
+                               @Value("${avatar.upload.jpeg-quality:0.85}") float jpegQuality,
+                               @Value("${avatar.upload.workers:2}") int workers,
+                               @Value("${avatar.upload.queue-capacity:32}") int queueCapacity) {
+        this.cloudinary = cloudinary;
+        this.userRepository = userRepository;
+        this.maxDimension = maxDimension;
+        this.jpegQuality = jpegQuality;
+        AtomicInteger sequence = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "avatar-upload-" + sequence.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    // Chép file ra đĩa ngay trong request (multipart bị xóa khi request kết thúc), phần còn lại chạy sau commit
+    public void submit(Integer userId, MultipartFile file) {
+        Path source;
+        try {
+            source = Files.createTempFile("avatar-", ".upload");
+            try (InputStream input = file.getInputStream()) {
+                Files.copy(input, source, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Không thể đọc file avatar: " + e.getMessage());
+        }
+
+        TransactionHooks.afterCommit(() -> {
+            try {
+                executor.execute(() -> process(userId, source));
+            } catch (RejectedExecutionException e) {
+                deleteQuietly(source);
+                throw new ServiceBusyException("Hệ thống đang bận xử lý ảnh. Vui lòng thử lại sau", 5);
+            }
+        });
+    }
+
+    void process(Integer userId, Path source) {
+        Path prepared = source;
+        try {
+            prepared = downscale(source);
+            Map<?, ?> uploadResult = cloudinary.uploader().upload(prepared.toFile(), ObjectUtils.asMap("folder", "avatars"));
+            String url = (String) uploadResult.get("secure_url");
+            userRepository.updateAvatar(userId, url);
+            log.info("Avatar updated for user {}: {}", userId, url);
+        } catch (Exception e) {
+            log.error("Avatar upload failed for user {}: {}", userId, e.getMessage(), e);
+        } finally {
+            deleteQuietly(source);
+            if (prepared != source) {
+                deleteQuietly(prepared);
+            }
+        }
+    }
+
+    // Đọc ảnh có subsampling để ảnh lớn không bị giải mã đầy đủ vào bộ nhớ; định dạng ImageIO không đọc được thì gửi nguyên file
+    Path downscale(Path source) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(source.toFile())) {
+            Iterator<ImageReader> readers = input == null ? null : ImageIO.getImageReaders(input);
+            if (readers == null || !readers.hasNext()) {
+                return source;
+            }
+            ImageReader reader = readers.next();
+            BufferedImage decoded;
+            try {
+                reader.setInput(input, true, true);
+                int longest = Math.max(reader.getWidth(0), reader.getHeight(0));
+                ImageReadParam param = reader.getDefaultReadParam();
+                int step = Math.max(1, longest / (maxDimension * 2));
+                param.setSourceSubsampling(step, step, 0, 0);
+                decoded = reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+
+            double scale = Math.min(1.0, (double) maxDimension / Math.max(decoded.getWidth(), decoded.getHeight()));
+            int width = Math.max(1, (int) Math.round(decoded.getWidth() * scale));
+            int height = Math.max(1, (int) Math.round(decoded.getHeight() * scale));
+            BufferedImage scaled = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+            Graphics2D graphics = scaled.createGraphics();
+            try {
+                graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+                // JPEG không có kênh alpha: nền trắng cho ảnh PNG trong suốt
+                graphics.setColor(Color.WHITE);
+                graphics.fillRect(0, 0, width, height);
+                graphics.drawImage(decoded, 0, 0, width, height, null);
+            } finally {
+                graphics.dispose();
+            }
+
+            Path target = Files.createTempFile("avatar-", ".jpg");
+            writeJpeg(scaled, target);
+            return target;
+        }
+    }
+
+    private void writeJpeg(BufferedImage image, Path target) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        try (ImageOutputStream output = ImageIO.createImageOutputStream(target.toFile())) {
+            writer.setOutput(output);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(jpegQuality);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+    }
+
+    private void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("Could not delete temp file {}: {}", path, e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        executor.shutdown();
+        executor.awaitTermination(Duration.ofSeconds(10).toMillis(), TimeUnit.MILLISECONDS);
+    }
+}
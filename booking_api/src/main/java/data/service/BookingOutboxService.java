@@ -0,0 +1,6 @@
+package data.service;
+
+public interface BookingOutboxService {
+    void record(Integer bookingId, Integer userId, String eventType, String title, String message);
+    int dispatchPending();
+}
@@ -0,0 +1,45 @@
+package data.service;
+
+import data.config.CacheConfig;
+import data.utils.TransactionHooks;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+// Xóa DTO chi tiết khỏi cache ngay khi ghi và một lần nữa sau commit; cache tăng version mỗi lần evict
+// nên request đã đọc dữ liệu cũ từ trước đó không put lại được (xem VersionedCopyingCache)
+@Component
+@RequiredArgsConstructor
+public class DetailCacheInvalidator {
+
+    private final CacheManager cacheManager;
+
+    public void evictHotel(Integer hotelId) {
+        if (hotelId == null) return;
+        evict(CacheConfig.HOTEL_DETAIL, hotelId);
+        TransactionHooks.afterCommit(() -> evict(CacheConfig.HOTEL_DETAIL, hotelId));
+    }
+
+    public void evictRoom(Integer roomId) {
+        if (roomId == null) return;
+        evict(CacheConfig.ROOM_DETAIL, roomId);
+        TransactionHooks.afterCommit(() -> evict(CacheConfig.ROOM_DETAIL, roomId));
+    }
+
+    // Phòng chứa tên khách sạn nên đổi khách sạn thì xóa toàn bộ cache phòng (ghi khách sạn rất hiếm)
+    public void evictAllRooms() {
+        clear(CacheConfig.ROOM_DETAIL);
+        TransactionHooks.afterCommit(() -> clear(CacheConfig.ROOM_DETAIL));
+    }
+
+    private void clear(String cacheName) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache != null) cache.clear();
+    }
+
+    private void evict(String cacheName, Integer key) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache != null) cache.evict(key);
+    }
+}
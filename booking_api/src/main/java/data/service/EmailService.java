@@ -1,23 +1,38 @@
 package data.service;
 
+import data.utils.TransactionHooks;
 import jakarta.mail.MessagingException;
-import jakarta.mail.internet.MimeMessage;
 import lombok.RequiredArgsConstructor;
-import org.springframework.mail.javamail.JavaMailSender;
-import org.springframework.mail.javamail.MimeMessageHelper;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
 @Service
 @RequiredArgsConstructor
+@Slf4j
 public class EmailService {
-    private final JavaMailSender mailSender;
+    private static final String OTP_SUBJECT = "Mã xác thực OTP của bạn";
+
+    private final MailDispatcher mailDispatcher;
 
     public void sendOtpEmail(String to, String otpCode) throws MessagingException {
-        MimeMessage message = mailSender.createMimeMessage();
-        MimeMessageHelper helper = new MimeMessageHelper(message, true);
-        helper.setTo(to);
-        helper.setSubject("Mã xác thực OTP của bạn");
-        helper.setText("Xin chào,\n\nMã OTP của bạn là: " + otpCode + "\nMã này sẽ hết hạn sau 5 phút.");
-        mailSender.send(message);
+        sendOtpEmail(to, otpCode, null);
+    }
+
+    // Email được đưa vào hàng đợi sau khi transaction commit, không chặn request chờ SMTP.
+    // onFailure chạy khi không gửi được sau khi đã thử lại.
+    public void sendOtpEmail(String to, String otpCode, Runnable onFailure) throws MessagingException {
+        if (!mailDispatcher.hasCapacity()) {
+            throw new MessagingException("Hàng đợi email đã đầy");
+        }
+        MailDispatcher.MailJob job = new MailDispatcher.MailJob(to, OTP_SUBJECT,
+                "Xin chào,\n\nMã OTP của bạn là: " + otpCode + "\nMã này sẽ hết hạn sau 5 phút.", onFailure, 0);
+        TransactionHooks.afterCommit(() -> {
+            if (!mailDispatcher.offer(job)) {
+                log.warn("Mail queue full, dropping OTP email to {}", to);
+                if (onFailure != null) {
+                    onFailure.run();
+                }
+            }
+        });
     }
-}
\ No newline at end of file
+}
@@ -1,5 +1,6 @@
 package data.service;
 
+import data.dto.response.CursorPageResponse;
 import data.dto.response.HotelResponseDTO;
 import data.entity.Hotel;
 
@@ -10,5 +11,6 @@ public interface HotelService {
     List<HotelResponseDTO> getHotelsByCity(String city);
     List<HotelResponseDTO> searchHotels(String keyword);
     HotelResponseDTO getHotelById(Integer hotelId);
+    CursorPageResponse<HotelResponseDTO> getHotelsPage(Integer cursor, Integer size);
+    CursorPageResponse<HotelResponseDTO> searchHotelsPage(String keyword, String city, Integer cursor, Integer size);
 }
-
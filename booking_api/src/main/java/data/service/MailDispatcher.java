@@ -0,0 +1,199 @@
+package data.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Hàng đợi gửi email có giới hạn. Worker lấy mail theo lô và gửi cả lô qua một kết nối SMTP;
+ * mail lỗi được thử lại với backoff tăng dần, hết lượt thử thì gọi onFailure của mail đó.
+ */
+@Component
+@Slf4j
+public class MailDispatcher {
+
+    public record MailJob(String to, String subject, String text, Runnable onFailure, int attempt) {
+        MailJob nextAttempt() {
+            return new MailJob(to, subject, text, onFailure, attempt + 1);
+        }
+    }
+
+    private final JavaMailSender mailSender;
+    private final String from;
+    private final BlockingQueue<MailJob> queue;
+    private final int workers;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final Duration retryBackoff;
+
+    private ExecutorService workerPool;
+    private ScheduledExecutorService retryScheduler;
+    private volatile boolean running;
+
+    public MailDispatcher(JavaMailSender mailSender,
+                          @Value("${spring.mail.username:}") String from,
+                          @Value("${mail.dispatcher.queue-capacity:500}") int queueCapacity,
+                          @Value("${mail.dispatcher.workers:2}") int workers,
+                          @Value("${mail.dispatcher.batch-size:20}") int batchSize,
+                          @Value("${mail.dispatcher.max-attempts:3}") int maxAttempts,
+                          @Value("${mail.dispatcher.retry-backoff:PT2S}") Duration retryBackoff) {
+        this.mailSender = mailSender;
+        this.from = from;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.workers = workers;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.retryBackoff = retryBackoff;
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        workerPool = Executors.newFixedThreadPool(workers, daemonThreads("mail-worker-"));
+        retryScheduler = Executors.newSingleThreadScheduledExecutor(daemonThreads("mail-retry-"));
+        for (int i = 0; i < workers; i++) {
+            workerPool.submit(this::drainLoop);
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        // stop() có thể được gọi khi start() chưa chạy (context khởi tạo lỗi, hoặc trong test)
+        if (workerPool != null) {
+            workerPool.shutdownNow();
+        }
+        if (retryScheduler != null) {
+            retryScheduler.shutdownNow();
+        }
+        if (!queue.isEmpty()) {
+            log.warn("Mail dispatcher stopped with {} pending messages", queue.size());
+        }
+    }
+
+    public boolean hasCapacity() {
+        return queue.remainingCapacity() > 0;
+    }
+
+    public boolean offer(MailJob job) {
+        return queue.offer(job);
+    }
+
+    private void drainLoop() {
+        List<MailJob> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                batch.add(queue.take());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            queue.drainTo(batch, batchSize - 1);
+            try {
+                send(batch);
+            } catch (RuntimeException e) {
+                log.error("Unexpected error while sending mail batch: {}", e.getMessage(), e);
+            }
+            batch.clear();
+        }
+    }
+
+    private void send(List<MailJob> batch) {
+        List<MailJob> jobs = new ArrayList<>(batch.size());
+        List<MimeMessage> messages = new ArrayList<>(batch.size());
+        for (MailJob job : batch) {
+            try {
+                messages.add(toMessage(job));
+                jobs.add(job);
+            } catch (MessagingException e) {
+                log.warn("Cannot build mail to {}: {}", job.to(), e.getMessage());
+                fail(job);
+            }
+        }
+        if (messages.isEmpty()) {
+            return;
+        }
+
+        try {
+            mailSender.send(messages.toArray(new MimeMessage[0]));
+        } catch (MailSendException e) {
+            Map<Object, Exception> failed = e.getFailedMessages();
+            for (int i = 0; i < messages.size(); i++) {
+                if (failed.isEmpty() || failed.containsKey(messages.get(i))) {
+                    retry(jobs.get(i), e);
+                }
+            }
+        } catch (MailException e) {
+            jobs.forEach(job -> retry(job, e));
+        }
+    }
+
+    private MimeMessage toMessage(MailJob job) throws MessagingException {
+        MimeMessage message = mailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(message, true);
+        if (from != null && !from.isEmpty()) {
+            helper.setFrom(from);
+        }
+        helper.setTo(job.to());
+        helper.setSubject(job.subject());
+        helper.setText(job.text());
+        return message;
+    }
+
+    private void retry(MailJob job, Exception cause) {
+        MailJob next = job.nextAttempt();
+        if (next.attempt() >= maxAttempts) {
+            log.warn("Giving up mail to {} after {} attempts: {}", job.to(), next.attempt(), cause.getMessage());
+            fail(job);
+            return;
+        }
+        long delay = retryBackoff.toMillis() << job.attempt();
+        log.info("Retrying mail to {} in {} ms (attempt {}): {}", job.to(), delay, next.attempt() + 1, cause.getMessage());
+        retryScheduler.schedule(() -> {
+            if (!queue.offer(next)) {
+                fail(next);
+            }
+        }, delay, TimeUnit.MILLISECONDS);
+    }
+
+    private void fail(MailJob job) {
+        if (job.onFailure() == null) {
+            return;
+        }
+        try {
+            job.onFailure().run();
+        } catch (RuntimeException e) {
+            log.error("Mail failure handler for {} threw: {}", job.to(), e.getMessage());
+        }
+    }
+
+    private static ThreadFactory daemonThreads(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -1,15 +1,20 @@
 package data.service;
 
+import data.dto.response.CursorPageResponse;
 import data.dto.response.NotificationResponseDTO;
+import data.entity.Notification;
 
 import java.util.List;
 
 public interface NotificationService {
     List<NotificationResponseDTO> getUserNotifications(Integer userId);
+    CursorPageResponse<NotificationResponseDTO> getNotificationsPage(Integer userId, String cursor, Integer size);
     List<NotificationResponseDTO> getUnreadNotifications(Integer userId);
     NotificationResponseDTO markAsRead(Integer notificationId);
+    Long markAsRead(List<Integer> notificationIds);
     void markAllAsRead(Integer userId);
     Long getUnreadCount(Integer userId);
     void createNotification(Integer userId, String title, String message, String type, Integer relatedBookingId);
+    void createNotifications(List<Notification> notifications);
 }
 
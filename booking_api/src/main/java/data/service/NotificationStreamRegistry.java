@@ -0,0 +1,206 @@
+package data.service;
+
+import data.dto.response.NotificationResponseDTO;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Quản lý các kết nối SSE theo user. Kết nối rảnh không giữ thread nào (servlet async).
+ * Mỗi kết nối có hàng đợi event riêng, được ghi tuần tự trên một pool thread dùng chung có giới hạn,
+ * nên một client chậm chỉ chặn chính nó; kết nối tồn quá max-backlog event bị đóng để client kết nối lại.
+ */
+@Component
+@Slf4j
+public class NotificationStreamRegistry {
+
+    public static final String EVENT_NOTIFICATION = "notification";
+    public static final String EVENT_UNREAD_COUNT = "unread-count";
+
+    private final Map<Integer, Set<Connection>> connections = new ConcurrentHashMap<>();
+    private final ThreadPoolExecutor pushExecutor;
+    private final long timeoutMillis;
+    private final int maxBacklog;
+
+    public NotificationStreamRegistry(@Value("${notification.stream.timeout:PT30M}") Duration timeout,
+                                      @Value("${notification.stream.push-threads:4}") int pushThreads,
+                                      @Value("${notification.stream.push-queue-capacity:10000}") int pushQueueCapacity,
+                                      @Value("${notification.stream.max-backlog:100}") int maxBacklog) {
+        this.timeoutMillis = timeout.toMillis();
+        this.maxBacklog = maxBacklog;
+        AtomicInteger counter = new AtomicInteger();
+        this.pushExecutor = new ThreadPoolExecutor(pushThreads, pushThreads, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(pushQueueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "sse-push-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    public SseEmitter subscribe(Integer userId, long unreadCount) {
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        attach(userId, emitter, unreadCount);
+        return emitter;
+    }
+
+    void attach(Integer userId, SseEmitter emitter, long unreadCount) {
+        Connection connection = new Connection(userId, emitter);
+        connections.computeIfAbsent(userId, key -> ConcurrentHashMap.newKeySet()).add(connection);
+        emitter.onCompletion(() -> remove(connection));
+        emitter.onTimeout(() -> remove(connection));
+        emitter.onError(e -> remove(connection));
+
+        connection.enqueue(SseEmitter.event().name(EVENT_UNREAD_COUNT).data(unreadCount));
+    }
+
+    public boolean isConnected(Integer userId) {
+        Set<Connection> targets = connections.get(userId);
+        return targets != null && !targets.isEmpty();
+    }
+
+    public void pushNotifications(Integer userId, List<NotificationResponseDTO> notifications, long unreadCount) {
+        for (Connection connection : connections.getOrDefault(userId, Set.of())) {
+            for (NotificationResponseDTO notification : notifications) {
+                connection.enqueue(SseEmitter.event().name(EVENT_NOTIFICATION).data(notification));
+            }
+            connection.enqueue(SseEmitter.event().name(EVENT_UNREAD_COUNT).data(unreadCount));
+        }
+    }
+
+    public void pushUnreadCount(Integer userId, long unreadCount) {
+        for (Connection connection : connections.getOrDefault(userId, Set.of())) {
+            connection.enqueue(SseEmitter.event().name(EVENT_UNREAD_COUNT).data(unreadCount));
+        }
+    }
+
+    // Comment định kỳ giữ kết nối qua proxy/NAT và phát hiện client đã ngắt
+    @Scheduled(fixedDelayString = "${notification.stream.heartbeat:PT25S}")
+    public void heartbeat() {
+        connections.values().forEach(targets -> targets.forEach(connection ->
+                connection.enqueue(SseEmitter.event().comment("ping"))));
+    }
+
+    public int getConnectionCount() {
+        return connections.values().stream().mapToInt(Set::size).sum();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pushExecutor.shutdownNow();
+        connections.values().forEach(targets -> targets.forEach(connection -> connection.emitter.complete()));
+        connections.clear();
+    }
+
+    private void remove(Connection connection) {
+        connections.computeIfPresent(connection.userId, (key, targets) -> {
+            targets.remove(connection);
+            return targets.isEmpty() ? null : targets;
+        });
+    }
+
+    /**
+     * Một kết nối SSE cùng hàng đợi event của nó. Tại mỗi thời điểm chỉ có tối đa một task ghi cho kết nối
+     * (cờ scheduled), nên event được ghi đúng thứ tự và client chậm không chiếm thêm thread nào khác.
+     */
+    private final class Connection implements Runnable {
+
+        private final Integer userId;
+        private final SseEmitter emitter;
+        private final Queue<SseEmitter.SseEventBuilder> pending = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger backlog = new AtomicInteger();
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private volatile boolean closed;
+
+        private Connection(Integer userId, SseEmitter emitter) {
+            this.userId = userId;
+            this.emitter = emitter;
+        }
+
+        void enqueue(SseEmitter.SseEventBuilder event) {
+            if (closed) return;
+            if (backlog.incrementAndGet() > maxBacklog) {
+                log.debug("SSE connection of user {} has more than {} pending events, closing", userId, maxBacklog);
+                close();
+                return;
+            }
+            pending.add(event);
+            schedule();
+        }
+
+        @Override
+        public void run() {
+            try {
+                SseEmitter.SseEventBuilder event;
+                while (!closed && (event = pending.poll()) != null) {
+                    backlog.decrementAndGet();
+                    if (!send(event)) {
+                        closed = true;
+                    }
+                }
+            } finally {
+                scheduled.set(false);
+            }
+            if (closed) {
+                if (scheduled.compareAndSet(false, true)) finish();
+            } else if (!pending.isEmpty()) {
+                // event được thêm vào sau lần poll cuối nhưng trước khi cờ scheduled được hạ
+                schedule();
+            }
+        }
+
+        private void schedule() {
+            if (!scheduled.compareAndSet(false, true)) return;
+            try {
+                pushExecutor.execute(this);
+            } catch (RejectedExecutionException e) {
+                scheduled.set(false);
+                log.warn("SSE push queue is full, closing connection of user {}", userId);
+                close();
+            }
+        }
+
+        private boolean send(SseEmitter.SseEventBuilder event) {
+            try {
+                emitter.send(event);
+                return true;
+            } catch (IOException | IllegalStateException e) {
+                log.debug("Dropping SSE connection of user {}: {}", userId, e.getMessage());
+                return false;
+            }
+        }
+
+        // Không gọi complete() khi đang có task ghi dở (emitter có thể đang bị chặn trong send);
+        // task đó sẽ tự hoàn tất kết nối khi send trả về
+        private void close() {
+            closed = true;
+            remove(this);
+            if (scheduled.compareAndSet(false, true)) {
+                finish();
+            }
+        }
+
+        private void finish() {
+            remove(this);
+            pending.clear();
+            emitter.complete();
+        }
+    }
+}
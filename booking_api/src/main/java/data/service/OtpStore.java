@@ -0,0 +1,26 @@
+package data.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+// Nơi lưu OTP tạm thời; chọn implementation bằng thuộc tính otp.store (memory | jdbc)
+public interface OtpStore {
+
+    record Entry(String code, LocalDateTime expiresAt, boolean verified) {
+        public boolean isExpired() {
+            return expiresAt.isBefore(LocalDateTime.now());
+        }
+    }
+
+    // Ghi đè OTP cũ (nếu có) bằng mã mới chưa verify
+    void put(String key, String code, Duration ttl);
+
+    // Chỉ trả về OTP còn hạn
+    Optional<Entry> get(String key);
+
+    // Đúng mã, chưa verify và còn hạn thì đánh dấu verified (nguyên tử); ngược lại trả về false
+    boolean verify(String key, String code);
+
+    void remove(String key);
+}
@@ -0,0 +1,222 @@
+package data.service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import data.dto.response.BookedRange;
+import data.repository.BookingRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Bitset các đêm đã đặt của từng phòng trong cửa sổ 365 ngày kể từ hôm nay.
+ * Bit i của một phòng tương ứng ngày (windowStart + i). Phòng không có đêm nào bị đặt
+ * thì không chiếm bộ nhớ. Trả về null khi khoảng ngày nằm ngoài cửa sổ hoặc cache chưa
+ * nạp xong, khi đó nơi gọi phải hỏi database.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class RoomAvailabilityCache {
+
+    public static final int WINDOW_DAYS = 365;
+    private static final int WORDS = (WINDOW_DAYS + 63) / 64;
+
+    // Ước lượng trên JVM 64-bit có compressed oops
+    private static final long BYTES_PER_ROOM =
+            16 + 8             // AtomicLongArray + tham chiếu tới mảng
+            + 16 + 8L * WORDS  // long[] header + dữ liệu
+            + 16               // khóa Integer
+            + 32 + 8;          // node của ConcurrentHashMap + ô trong bảng băm
+
+    private final BookingRepository bookingRepository;
+
+    private final ReadWriteLock swapLock = new ReentrantReadWriteLock();
+    private volatile Window window;
+    private volatile Queue<Op> journal;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        rebuild();
+    }
+
+    // Trượt cửa sổ sang ngày mới và đối soát lại với database
+    @Scheduled(cron = "0 5 0 * * *")
+    public void rebuild() {
+        swapLock.writeLock().lock();
+        try {
+            journal = new ConcurrentLinkedQueue<>();
+        } finally {
+            swapLock.writeLock().unlock();
+        }
+
+        LocalDate start = LocalDate.now();
+        Window fresh = new Window(start);
+        List<BookedRange> ranges = bookingRepository.findActiveRangesBetween(start, fresh.end());
+        for (BookedRange range : ranges) {
+            fresh.set(range.getRoomId(), range.getCheckIn(), range.getCheckOut(), true);
+        }
+
+        swapLock.writeLock().lock();
+        try {
+            // Áp lại các thay đổi đã commit trong lúc đang nạp
+            for (Op op : journal) {
+                fresh.set(op.roomId(), op.checkIn(), op.checkOut(), op.booked());
+            }
+            window = fresh;
+            journal = null;
+        } finally {
+            swapLock.writeLock().unlock();
+        }
+        log.info("Room availability cache loaded: {}", getStats());
+    }
+
+    public void markBooked(Integer roomId, LocalDate checkIn, LocalDate checkOut) {
+        apply(new Op(roomId, checkIn, checkOut, true));
+    }
+
+    public void markFree(Integer roomId, LocalDate checkIn, LocalDate checkOut) {
+        apply(new Op(roomId, checkIn, checkOut, false));
+    }
+
+    public Boolean isAvailable(Integer roomId, LocalDate checkIn, LocalDate checkOut) {
+        Window current = window;
+        if (current == null || !current.covers(checkIn, checkOut)) {
+            return null;
+        }
+        AtomicLongArray bits = current.rooms.get(roomId);
+        if (bits == null) {
+            return true;
+        }
+        for (int i = current.index(checkIn); i < current.index(checkOut); i++) {
+            if (isSet(bits, i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Các đêm đã đặt trong [from, to), null nếu khoảng ngày không nằm trong cửa sổ
+    public List<LocalDate> bookedNights(Integer roomId, LocalDate from, LocalDate to) {
+        Window current = window;
+        if (current == null || !current.covers(from, to)) {
+            return null;
+        }
+        List<LocalDate> nights = new ArrayList<>();
+        AtomicLongArray bits = current.rooms.get(roomId);
+        if (bits != null) {
+            for (int i = current.index(from); i < current.index(to); i++) {
+                if (isSet(bits, i)) {
+                    nights.add(current.start.plusDays(i));
+                }
+            }
+        }
+        return nights;
+    }
+
+    public Map<String, Object> getStats() {
+        Window current = window;
+        int rooms = current == null ? 0 : current.rooms.size();
+        long bookedNights = 0;
+        if (current != null) {
+            for (AtomicLongArray bits : current.rooms.values()) {
+                for (int w = 0; w < WORDS; w++) {
+                    bookedNights += Long.bitCount(bits.get(w));
+                }
+            }
+        }
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("windowStart", current == null ? null : current.start);
+        stats.put("roomsTracked", rooms);
+        stats.put("bookedNights", bookedNights);
+        stats.put("estimatedBytes", rooms * BYTES_PER_ROOM);
+        stats.put("estimatedBytesPer10kRooms", 10_000 * BYTES_PER_ROOM);
+        return stats;
+    }
+
+    private void apply(Op op) {
+        swapLock.readLock().lock();
+        try {
+            Window current = window;
+            if (current != null) {
+                current.set(op.roomId(), op.checkIn(), op.checkOut(), op.booked());
+            }
+            Queue<Op> pending = journal;
+            if (pending != null) {
+                pending.add(op);
+            }
+        } finally {
+            swapLock.readLock().unlock();
+        }
+    }
+
+    private static boolean isSet(AtomicLongArray bits, int i) {
+        return (bits.get(i >>> 6) & (1L << i)) != 0;
+    }
+
+    private record Op(Integer roomId, LocalDate checkIn, LocalDate checkOut, boolean booked) {
+    }
+
+    private static final class Window {
+        private final LocalDate start;
+        private final long startDay;
+        private final ConcurrentHashMap<Integer, AtomicLongArray> rooms = new ConcurrentHashMap<>();
+
+        private Window(LocalDate start) {
+            this.start = start;
+            this.startDay = start.toEpochDay();
+        }
+
+        private LocalDate end() {
+            return start.plusDays(WINDOW_DAYS);
+        }
+
+        private int index(LocalDate day) {
+            return (int) (day.toEpochDay() - startDay);
+        }
+
+        private boolean covers(LocalDate from, LocalDate to) {
+            return from != null && to != null && !from.isBefore(start) && !to.isAfter(end());
+        }
+
+        // Phần nằm ngoài cửa sổ bị bỏ qua; lần trượt cửa sổ tiếp theo sẽ nạp lại từ database
+        private void set(Integer roomId, LocalDate checkIn, LocalDate checkOut, boolean booked) {
+            if (roomId == null || checkIn == null || checkOut == null) {
+                return;
+            }
+            int from = Math.max(0, index(checkIn));
+            int to = Math.min(WINDOW_DAYS, index(checkOut));
+            if (from >= to) {
+                return;
+            }
+            AtomicLongArray bits = booked
+                    ? rooms.computeIfAbsent(roomId, id -> new AtomicLongArray(WORDS))
+                    : rooms.get(roomId);
+            if (bits == null) {
+                return;
+            }
+            for (int i = from; i < to; i++) {
+                long mask = 1L << i;
+                if (booked) {
+                    bits.getAndUpdate(i >>> 6, word -> word | mask);
+                } else {
+                    bits.getAndUpdate(i >>> 6, word -> word & ~mask);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package data.service;
+
+import data.entity.Bookings;
+
+import java.time.LocalDate;
+
+public interface RoomAvailabilityService {
+    void reserve(Bookings booking);
+    void release(Bookings booking);
+    void syncCache(Bookings booking);
+    boolean isAvailable(Integer roomId, LocalDate checkIn, LocalDate checkOut);
+}
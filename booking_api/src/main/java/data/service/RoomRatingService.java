@@ -0,0 +1,12 @@
+package data.service;
+
+import data.entity.RoomRating;
+
+import java.util.Collection;
+import java.util.Map;
+
+public interface RoomRatingService {
+    void recordRating(Integer roomId, Integer rating);
+    void recordRatingChange(Integer roomId, Integer oldRating, Integer newRating);
+    Map<Integer, RoomRating> getRatings(Collection<Integer> roomIds);
+}
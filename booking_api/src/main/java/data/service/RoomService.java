@@ -1,12 +1,20 @@
 package data.service;
 
+import data.dto.response.CursorPageResponse;
+import data.dto.response.RoomCalendarDTO;
 import data.dto.response.RoomResponseDTO;
 
+import java.time.LocalDate;
 import java.util.List;
 
 public interface RoomService {
     List<RoomResponseDTO> getAllRooms();
     List<RoomResponseDTO> getRoomsByHotelId(Integer hotelId);
+    CursorPageResponse<RoomResponseDTO> getRoomsPage(Integer cursor, Integer size);
+    CursorPageResponse<RoomResponseDTO> getRoomsByHotelIdPage(Integer hotelId, Integer cursor, Integer size);
+    CursorPageResponse<RoomResponseDTO> searchAvailableRooms(String city, LocalDate checkIn, LocalDate checkOut,
+                                                             Integer guests, Integer cursor, Integer size);
     RoomResponseDTO getRoomById(Integer roomId);
+    RoomCalendarDTO getRoomCalendar(Integer roomId, LocalDate from, LocalDate to);
     List<RoomResponseDTO> searchRooms(String keyword);
 }
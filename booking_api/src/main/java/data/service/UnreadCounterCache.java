@@ -0,0 +1,62 @@
+package data.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import data.utils.TransactionHooks;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Bộ đếm thông báo chưa đọc theo user. Lần đọc đầu (hoặc sau khi bị xóa) lấy từ DB,
+ * sau đó được cộng/trừ theo từng thay đổi đã commit. Định kỳ xóa toàn bộ để đối chiếu lại với DB.
+ */
+@Component
+public class UnreadCounterCache {
+
+    private final Cache<Integer, AtomicLong> counters;
+
+    public UnreadCounterCache(@Value("${notification.unread.max-size:50000}") long maxSize,
+                              @Value("${notification.unread.expire-after-access:PT1H}") Duration expireAfterAccess) {
+        this.counters = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterAccess(expireAfterAccess)
+                .build();
+    }
+
+    public long get(Integer userId, LongSupplier loader) {
+        return counters.get(userId, key -> new AtomicLong(loader.getAsLong())).get();
+    }
+
+    // Chỉ cập nhật user đang có trong cache; user chưa có sẽ được nạp từ DB ở lần đọc sau
+    public void add(Integer userId, long delta) {
+        TransactionHooks.afterCommit(() -> {
+            AtomicLong counter = counters.getIfPresent(userId);
+            if (counter != null) {
+                counter.updateAndGet(value -> Math.max(0, value + delta));
+            }
+        });
+    }
+
+    public void reset(Integer userId) {
+        TransactionHooks.afterCommit(() -> {
+            AtomicLong counter = counters.getIfPresent(userId);
+            if (counter != null) {
+                counter.set(0);
+            }
+        });
+    }
+
+    public void invalidate(Integer userId) {
+        TransactionHooks.afterCommit(() -> counters.invalidate(userId));
+    }
+
+    @Scheduled(fixedDelayString = "${notification.unread.reconcile-interval:PT10M}")
+    public void reconcile() {
+        counters.invalidateAll();
+    }
+}
@@ -15,6 +15,8 @@ public interface UserService {
     void setPassword(String phoneNumber, String password);
     JWTResponse login(UserLogin userLogin);
     User getCurrentUser();
+    Integer getCurrentUserId();
+    User getCurrentUserReference();
     User getUserById(Integer userId);
     UserResponseDTO updateProfile(UpdateProfileRequest request);
     UserResponseDTO updateAvatar(org.springframework.web.multipart.MultipartFile file);
@@ -0,0 +1,130 @@
+package data.service.impl;
+
+import data.entity.BookingOutbox;
+import data.entity.Notification;
+import data.repository.BookingOutboxRepository;
+import data.repository.UserRepository;
+import data.service.BookingOutboxService;
+import data.service.NotificationService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Service
+@Slf4j
+public class BookingOutboxServiceImpl implements BookingOutboxService {
+
+    private final BookingOutboxRepository outboxRepository;
+    private final UserRepository userRepository;
+    private final NotificationService notificationService;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final Duration retention;
+
+    public BookingOutboxServiceImpl(BookingOutboxRepository outboxRepository,
+                                    UserRepository userRepository,
+                                    NotificationService notificationService,
+                                    TransactionTemplate transactionTemplate,
+                                    @Value("${outbox.batch-size:200}") int batchSize,
+                                    @Value("${outbox.max-attempts:5}") int maxAttempts,
+                                    @Value("${outbox.retention:P7D}") Duration retention) {
+        this.outboxRepository = outboxRepository;
+        this.userRepository = userRepository;
+        this.notificationService = notificationService;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.retention = retention;
+    }
+
+    // Phải chạy trong transaction của booking để sự kiện và booking cùng commit hoặc cùng rollback
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(Integer bookingId, Integer userId, String eventType, String title, String message) {
+        outboxRepository.save(BookingOutbox.builder()
+                .bookingId(bookingId)
+                .userId(userId)
+                .eventType(eventType)
+                .title(title)
+                .message(message)
+                .build());
+    }
+
+    @Scheduled(fixedDelayString = "${outbox.dispatch-interval:PT1S}")
+    public void dispatchScheduled() {
+        try {
+            while (dispatchPending() == batchSize) {
+                // còn sự kiện tồn đọng, xử lý tiếp lô sau
+            }
+        } catch (RuntimeException e) {
+            log.error("Booking outbox dispatch failed: {}", e.getMessage(), e);
+        }
+    }
+
+    // Khóa một lô, ghi thông báo và đánh dấu đã xử lý trong cùng transaction (at-least-once).
+    // Lô lỗi thì rollback rồi xử lý lại từng sự kiện trong transaction riêng, để một sự kiện hỏng không chặn cả hàng đợi
+    @Override
+    public int dispatchPending() {
+        try {
+            Integer processed = transactionTemplate.execute(status -> dispatch(outboxRepository.lockPending(batchSize)));
+            return processed != null ? processed : 0;
+        } catch (RuntimeException e) {
+            log.warn("Booking outbox batch failed, dispatching events one by one: {}", e.getMessage());
+            return dispatchOneByOne();
+        }
+    }
+
+    private int dispatchOneByOne() {
+        List<Long> ids = outboxRepository.findPendingIds(batchSize);
+        for (Long id : ids) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> dispatch(outboxRepository.lockPendingById(id)));
+            } catch (RuntimeException e) {
+                log.error("Booking outbox event {} failed: {}", id, e.getMessage(), e);
+                transactionTemplate.executeWithoutResult(status ->
+                        outboxRepository.recordFailure(id, maxAttempts, LocalDateTime.now()));
+            }
+        }
+        return ids.size();
+    }
+
+    private int dispatch(List<BookingOutbox> events) {
+        if (events.isEmpty()) {
+            return 0;
+        }
+        List<Notification> notifications = events.stream()
+                .map(event -> Notification.builder()
+                        .user(userRepository.getReferenceById(event.getUserId()))
+                        .title(event.getTitle())
+                        .message(event.getMessage())
+                        .type(event.getEventType())
+                        .isRead(false)
+                        .relatedBookingId(event.getBookingId())
+                        .build())
+                .toList();
+        notificationService.createNotifications(notifications);
+        outboxRepository.markProcessed(events.stream().map(BookingOutbox::getOutboxId).toList(), LocalDateTime.now());
+        return events.size();
+    }
+
+    @Scheduled(cron = "0 30 3 * * *")
+    public void purgeProcessed() {
+        LocalDateTime before = LocalDateTime.now().minus(retention);
+        int total = 0;
+        int deleted;
+        do {
+            deleted = transactionTemplate.execute(status -> outboxRepository.purgeProcessed(before, batchSize));
+            total += deleted;
+        } while (deleted == batchSize);
+        log.info("Purged {} processed booking outbox rows", total);
+    }
+}
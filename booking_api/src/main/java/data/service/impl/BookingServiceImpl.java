@@ -2,21 +2,29 @@ package data.service.impl;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
 
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import data.dto.request.BookingRequest;
 import data.dto.response.BookingResponseDTO;
 import data.entity.Bookings;
 import data.entity.Room;
+import data.entity.RoomRating;
 import data.entity.User;
 import data.exception.NotFoundException;
 import data.mapper.BookingMapper;
 import data.repository.BookingRepository;
 import data.repository.RoomRepository;
+import data.service.BookingOutboxService;
 import data.service.BookingService;
-import data.service.NotificationService;
+import data.service.RoomAvailabilityService;
+import data.service.RoomRatingService;
 import data.service.UserService;
 import data.utils.BookingStatus;
 import lombok.RequiredArgsConstructor;
@@ -28,19 +36,24 @@ public class BookingServiceImpl implements BookingService {
     private final BookingRepository bookingRepository;
     private final RoomRepository roomRepository;
     private final UserService userService;
-    private final NotificationService notificationService;
-    private final data.repository.ReviewRepository reviewRepository;
+    private final BookingOutboxService bookingOutboxService;
+    private final RoomRatingService roomRatingService;
+    private final RoomAvailabilityService roomAvailabilityService;
+    private final TransactionTemplate transactionTemplate;
+
+    private static final int MAX_TRANSITION_ATTEMPTS = 3;
+    private static final long RETRY_BACKOFF_MS = 20;
 
     private void enrichWithRatings(java.util.List<BookingResponseDTO> bookingDTOs) {
+        Map<Integer, RoomRating> ratings = roomRatingService.getRatings(
+                bookingDTOs.stream().map(BookingResponseDTO::getRoomId).toList());
+
         for (BookingResponseDTO dto : bookingDTOs) {
             if (dto.getRoomId() != null) {
-                var reviews = reviewRepository.findByRoom_RoomId(dto.getRoomId());
-                if (!reviews.isEmpty()) {
-                    dto.setReviewCount(reviews.size());
-                    dto.setRating(reviews.stream()
-                            .mapToInt(r -> r.getRating())
-                            .average()
-                            .orElse(0.0));
+                RoomRating rating = ratings.get(dto.getRoomId());
+                if (rating != null && rating.getReviewCount() > 0) {
+                    dto.setReviewCount(rating.getReviewCount());
+                    dto.setRating(rating.getAverageRating());
                 } else {
                     dto.setReviewCount(0);
                     dto.setRating(0.0);
@@ -52,7 +65,7 @@ public class BookingServiceImpl implements BookingService {
     @Override
     @Transactional
     public BookingResponseDTO createBooking(BookingRequest request) {
-        User user = userService.getCurrentUser();
+        User user = userService.getCurrentUserReference();
         Room room = roomRepository.findById(request.getRoomId())
                 .orElseThrow(() -> new NotFoundException("Không tìm thấy phòng với ID: " + request.getRoomId()));
 
@@ -62,6 +75,11 @@ public class BookingServiceImpl implements BookingService {
             throw new RuntimeException("Số đêm phải lớn hơn 0");
         }
 
+        // Kiểm tra nhanh trên bitmap trong bộ nhớ; unique key của room_nights vẫn là chốt chặn cuối cùng
+        if (!roomAvailabilityService.isAvailable(room.getRoomId(), request.getCheckIn(), request.getCheckOut())) {
+            throw new RuntimeException("Phòng đã được đặt trong khoảng thời gian này. Vui lòng chọn ngày khác.");
+        }
+
         // Calculate total price: room price * number of guests * number of nights
         int totalGuests = (request.getAdultsCount() != null ? request.getAdultsCount() : 0) +
                 (request.getChildrenCount() != null ? request.getChildrenCount() : 0);
@@ -80,17 +98,18 @@ public class BookingServiceImpl implements BookingService {
                 .build();
 
         booking = bookingRepository.save(booking);
+        roomAvailabilityService.reserve(booking);
 
-        // Create notification for successful booking
+        // Ghi sự kiện vào outbox trong cùng transaction; dispatcher sẽ tạo thông báo
         Room savedRoom = booking.getRoom();
         String hotelName = savedRoom.getHotel().getHotelName();
-        notificationService.createNotification(
+        bookingOutboxService.record(
+                booking.getBookingId(),
                 user.getUserId(),
+                "BOOKING_SUCCESS",
                 "Đặt phòng thành công",
                 String.format("Bạn đã đặt phòng tại %s thành công. Mã đặt phòng: #%d", hotelName,
-                        booking.getBookingId()),
-                "BOOKING_SUCCESS",
-                booking.getBookingId());
+                        booking.getBookingId()));
 
         BookingResponseDTO dto = BookingMapper.toDTO(booking);
         enrichWithRatings(java.util.List.of(dto));
@@ -128,29 +147,61 @@ public class BookingServiceImpl implements BookingService {
         return dto;
     }
 
-    @Override
-    @Transactional
-    public BookingResponseDTO cancelBooking(Integer bookingId) {
+    // Mỗi lần chạy là một transaction riêng; xung đột version thì đọc lại booking và thử lại
+    private <T> T withConflictRetry(Supplier<T> work) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionTemplate.execute(status -> work.get());
+            } catch (OptimisticLockingFailureException e) {
+                if (attempt >= MAX_TRANSITION_ATTEMPTS) {
+                    throw new RuntimeException("Booking đang được cập nhật bởi yêu cầu khác, vui lòng thử lại");
+                }
+                try {
+                    Thread.sleep(RETRY_BACKOFF_MS * attempt + ThreadLocalRandom.current().nextLong(RETRY_BACKOFF_MS));
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    throw new RuntimeException("Cập nhật booking bị gián đoạn");
+                }
+            }
+        }
+    }
+
+    private Bookings loadForTransition(Integer bookingId, Integer currentUserId, BookingStatus target, String forbiddenMessage) {
         Bookings booking = bookingRepository.findById(bookingId)
                 .orElseThrow(() -> new NotFoundException("Không tìm thấy booking với ID: " + bookingId));
 
-        User currentUser = userService.getCurrentUser();
-        if (!booking.getUser().getUserId().equals(currentUser.getUserId())) {
-            throw new RuntimeException("Bạn không có quyền hủy booking này");
+        if (!booking.getUser().getUserId().equals(currentUserId)) {
+            throw new RuntimeException(forbiddenMessage);
+        }
+        if (booking.getStatus() == null || !booking.getStatus().canTransitionTo(target)) {
+            throw new RuntimeException("Không thể chuyển booking từ trạng thái " + booking.getStatus() + " sang " + target);
         }
+        return booking;
+    }
+
+    @Override
+    public BookingResponseDTO cancelBooking(Integer bookingId) {
+        return withConflictRetry(() -> doCancelBooking(bookingId));
+    }
+
+    private BookingResponseDTO doCancelBooking(Integer bookingId) {
+        Integer currentUserId = userService.getCurrentUserId();
+        Bookings booking = loadForTransition(bookingId, currentUserId, BookingStatus.CANCELLED,
+                "Bạn không có quyền hủy booking này");
 
         booking.setStatus(BookingStatus.CANCELLED);
         booking = bookingRepository.save(booking);
+        roomAvailabilityService.release(booking);
 
         // Create notification for cancelled booking
         Room room = booking.getRoom();
         String hotelName = room.getHotel().getHotelName();
-        notificationService.createNotification(
-                currentUser.getUserId(),
-                "Đặt phòng đã bị hủy",
-                String.format("Đặt phòng tại %s (Mã: #%d) đã được hủy thành công.", hotelName, booking.getBookingId()),
+        bookingOutboxService.record(
+                booking.getBookingId(),
+                currentUserId,
                 "BOOKING_CANCELLED",
-                booking.getBookingId());
+                "Đặt phòng đã bị hủy",
+                String.format("Đặt phòng tại %s (Mã: #%d) đã được hủy thành công.", hotelName, booking.getBookingId()));
 
         BookingResponseDTO dto = BookingMapper.toDTO(booking);
         enrichWithRatings(java.util.List.of(dto));
@@ -158,29 +209,29 @@ public class BookingServiceImpl implements BookingService {
     }
 
     @Override
-    @Transactional
     public BookingResponseDTO confirmBooking(Integer bookingId) {
-        Bookings booking = bookingRepository.findById(bookingId)
-                .orElseThrow(() -> new NotFoundException("Không tìm thấy booking với ID: " + bookingId));
+        return withConflictRetry(() -> doConfirmBooking(bookingId));
+    }
 
-        User currentUser = userService.getCurrentUser();
-        if (!booking.getUser().getUserId().equals(currentUser.getUserId())) {
-            throw new RuntimeException("Bạn không có quyền xác nhận booking này");
-        }
+    private BookingResponseDTO doConfirmBooking(Integer bookingId) {
+        Integer currentUserId = userService.getCurrentUserId();
+        Bookings booking = loadForTransition(bookingId, currentUserId, BookingStatus.CONFIRMED,
+                "Bạn không có quyền xác nhận booking này");
 
         booking.setStatus(BookingStatus.CONFIRMED);
         booking = bookingRepository.save(booking);
+        roomAvailabilityService.syncCache(booking);
 
         // Create notification for confirmed booking
         Room room = booking.getRoom();
         String hotelName = room.getHotel().getHotelName();
-        notificationService.createNotification(
-                currentUser.getUserId(),
+        bookingOutboxService.record(
+                booking.getBookingId(),
+                currentUserId,
+                "BOOKING_CONFIRMED",
                 "Đặt phòng đã được xác nhận",
                 String.format("Đặt phòng tại %s (Mã: #%d) đã được xác nhận. Chúc bạn có chuyến đi vui vẻ!", hotelName,
-                        booking.getBookingId()),
-                "BOOKING_CONFIRMED",
-                booking.getBookingId());
+                        booking.getBookingId()));
 
         BookingResponseDTO dto = BookingMapper.toDTO(booking);
         enrichWithRatings(java.util.List.of(dto));
@@ -3,13 +3,15 @@ package data.service.impl;
 import data.dto.response.FavoriteResponseDTO;
 import data.entity.Favorite;
 import data.entity.Room;
+import data.entity.RoomRating;
 import data.entity.User;
 import data.exception.NotFoundException;
 import data.repository.FavoriteRepository;
 import data.repository.RoomRepository;
-import data.repository.ReviewRepository;
 import data.service.FavoriteService;
+import data.service.RoomRatingService;
 import data.service.UserService;
+import data.utils.ImageVariants;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -17,6 +19,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;  
 
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
@@ -27,22 +30,24 @@ public class FavoriteServiceImpl implements FavoriteService {
 
     private final FavoriteRepository favoriteRepository;
     private final RoomRepository roomRepository;
-    private final ReviewRepository reviewRepository;
+    private final RoomRatingService roomRatingService;
     private final UserService userService;  
     
     @Override
     @Transactional(readOnly = true)
     public List<FavoriteResponseDTO> getUserFavorites(Integer userId) {
         List<Favorite> favorites = favoriteRepository.findByUser_UserIdOrderByCreatedAtDesc(userId);
+        Map<Integer, RoomRating> ratings = roomRatingService.getRatings(
+            favorites.stream().map(f -> f.getRoom().getRoomId()).toList());
         return favorites.stream()
-            .map(this::toDTO)
+            .map(f -> toDTO(f, ratings.get(f.getRoom().getRoomId())))
             .collect(Collectors.toList());
     }
     
     @Override
     @Transactional
     public FavoriteResponseDTO addFavorite(Integer roomId) {
-        User user = userService.getCurrentUser();
+        User user = userService.getCurrentUserReference();
         Room room = roomRepository.findById(roomId)
             .orElseThrow(() -> new NotFoundException("Không tìm thấy phòng với ID: " + roomId));
         
@@ -56,17 +61,17 @@ public class FavoriteServiceImpl implements FavoriteService {
             .build();
         
         favorite = favoriteRepository.save(favorite);
-        return toDTO(favorite);
+        return toDTO(favorite, roomRatingService.getRatings(List.of(roomId)).get(roomId));
     }
     
     @Override
     @Transactional
     public void removeFavorite(Integer favoriteId) {
-        User currentUser = userService.getCurrentUser();
+        Integer currentUserId = userService.getCurrentUserId();
         Favorite favorite = favoriteRepository.findById(favoriteId)
             .orElseThrow(() -> new NotFoundException("Không tìm thấy yêu thích với ID: " + favoriteId));
         
-        if (!favorite.getUser().getUserId().equals(currentUser.getUserId())) {
+        if (!favorite.getUser().getUserId().equals(currentUserId)) {
             throw new RuntimeException("Bạn không có quyền xóa yêu thích này");
         }
         
@@ -76,8 +81,7 @@ public class FavoriteServiceImpl implements FavoriteService {
     @Override
     @Transactional
     public void removeFavoriteByRoomId(Integer roomId) {
-        User currentUser = userService.getCurrentUser();
-        Favorite favorite = favoriteRepository.findFavoriteByUserAndRoom(currentUser.getUserId(), roomId)
+        Favorite favorite = favoriteRepository.findFavoriteByUserAndRoom(userService.getCurrentUserId(), roomId)
             .orElseThrow(() -> new NotFoundException("Không tìm thấy yêu thích cho phòng này"));
         
         favoriteRepository.delete(favorite);
@@ -86,27 +90,22 @@ public class FavoriteServiceImpl implements FavoriteService {
     @Override
     @Transactional(readOnly = true)
     public boolean isFavorite(Integer roomId) {
-        User currentUser = userService.getCurrentUser();
-        return favoriteRepository.existsByUser_UserIdAndRoom_RoomId(currentUser.getUserId(), roomId);
+        return favoriteRepository.existsByUser_UserIdAndRoom_RoomId(userService.getCurrentUserId(), roomId);
     }
     
-    private FavoriteResponseDTO toDTO(Favorite favorite) {
+    private FavoriteResponseDTO toDTO(Favorite favorite, RoomRating roomRating) {
         Room room = favorite.getRoom();
         String roomImageUrl = null;
         if (room.getImages() != null && !room.getImages().isEmpty()) {
-            roomImageUrl = room.getImages().get(0).getImageUrl();
+            roomImageUrl = ImageVariants.thumbnail(room.getImages().get(0).getImageUrl());
         }
 
         Double rating = null;
         Integer reviewCount = null;
 
-        var reviews = reviewRepository.findByRoom_RoomId(room.getRoomId());
-        if (!reviews.isEmpty()) {
-            reviewCount = reviews.size();
-            rating = reviews.stream()
-                .mapToInt(r -> r.getRating())
-                .average()
-                .orElse(0.0);
+        if (roomRating != null && roomRating.getReviewCount() > 0) {
+            reviewCount = roomRating.getReviewCount();
+            rating = roomRating.getAverageRating();
         }
 
         logger.info("Favorite toDTO - favoriteId={} roomId={} rating={} reviewCount={}", favorite.getFavoriteId(), room.getRoomId(), rating, reviewCount);
@@ -1,15 +1,20 @@
 package data.service.impl;
 
+import data.dto.response.CursorPageResponse;
 import data.dto.response.HotelResponseDTO;
 import data.entity.Hotel;
 import data.exception.NotFoundException;
 import data.mapper.HotelMapper;
 import data.repository.HotelRepository;
+import data.config.CacheConfig;
 import data.service.HotelService;
+import data.utils.CursorPaging;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Comparator;
 import java.util.List;
 
 @Service
@@ -40,11 +45,52 @@ public class HotelServiceImpl implements HotelService {
     }
     
     @Override
+    @Cacheable(cacheNames = CacheConfig.HOTEL_DETAIL, key = "#hotelId")
     @Transactional(readOnly = true)
     public HotelResponseDTO getHotelById(Integer hotelId) {
         Hotel hotel = hotelRepository.findByIdWithImages(hotelId)
             .orElseThrow(() -> new NotFoundException("Không tìm thấy khách sạn với ID: " + hotelId));
         return HotelMapper.toDTO(hotel);
     }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageResponse<HotelResponseDTO> getHotelsPage(Integer cursor, Integer size) {
+        int pageSize = CursorPaging.clampSize(size);
+        List<Integer> ids = hotelRepository.findIdPageAfter(cursor, CursorPaging.probe(pageSize));
+        return toPage(ids, pageSize);
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageResponse<HotelResponseDTO> searchHotelsPage(String keyword, String city, Integer cursor, Integer size) {
+        int pageSize = CursorPaging.clampSize(size);
+        String cityFilter = city != null && !city.trim().isEmpty() ? city.trim() : null;
+        List<Integer> ids;
+        if (keyword != null && !keyword.trim().isEmpty()) {
+            // keyword và city cùng có thì áp dụng cả hai điều kiện
+            ids = hotelRepository.searchIdPageAfter(keyword.trim(), cityFilter, cursor, CursorPaging.probe(pageSize));
+        } else if (cityFilter != null) {
+            ids = hotelRepository.findIdPageByCityAfter(cityFilter, cursor, CursorPaging.probe(pageSize));
+        } else {
+            ids = hotelRepository.findIdPageAfter(cursor, CursorPaging.probe(pageSize));
+        }
+        return toPage(ids, pageSize);
+    }
+    
+    private CursorPageResponse<HotelResponseDTO> toPage(List<Integer> ids, int pageSize) {
+        boolean hasMore = ids.size() > pageSize;
+        List<Integer> pageIds = hasMore ? ids.subList(0, pageSize) : ids;
+        
+        List<Hotel> hotels = pageIds.isEmpty() ? List.of() : hotelRepository.findAllWithImagesByIdIn(pageIds).stream()
+            .sorted(Comparator.comparing(Hotel::getHotelId))
+            .toList();
+        
+        return CursorPageResponse.<HotelResponseDTO>builder()
+            .items(HotelMapper.toDTOList(hotels))
+            .nextCursor(hasMore ? String.valueOf(pageIds.get(pageIds.size() - 1)) : null)
+            .hasMore(hasMore)
+            .size(hotels.size())
+            .build();
+    }
 }
-
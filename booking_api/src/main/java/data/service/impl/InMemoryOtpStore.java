@@ -0,0 +1,90 @@
+package data.service.impl;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import data.service.OtpStore;
+
+/**
+ * OTP trong bộ nhớ process. Thao tác kiểm tra-rồi-ghi dùng ConcurrentHashMap.compute nên chỉ khóa
+ * phần bin chứa key đó. Mỗi OTP có một token trong DelayQueue; định kỳ chỉ lấy ra các token đã hết hạn,
+ * không phải duyệt toàn bộ map.
+ */
+@Component
+@ConditionalOnProperty(name = "otp.store", havingValue = "memory", matchIfMissing = true)
+public class InMemoryOtpStore implements OtpStore {
+
+    private record ExpiryToken(String key, Entry entry, long deadlineNanos) implements Delayed {
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(deadlineNanos - System.nanoTime(), TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            return Long.compare(deadlineNanos, ((ExpiryToken) other).deadlineNanos);
+        }
+    }
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final DelayQueue<ExpiryToken> expiries = new DelayQueue<>();
+
+    @Override
+    public void put(String key, String code, Duration ttl) {
+        Entry entry = new Entry(code, LocalDateTime.now().plus(ttl), false);
+        entries.put(key, entry);
+        expiries.add(new ExpiryToken(key, entry, System.nanoTime() + ttl.toNanos()));
+    }
+
+    @Override
+    public Optional<Entry> get(String key) {
+        Entry entry = entries.get(key);
+        if (entry == null || entry.isExpired()) {
+            return Optional.empty();
+        }
+        return Optional.of(entry);
+    }
+
+    @Override
+    public boolean verify(String key, String code) {
+        boolean[] verified = {false};
+        entries.computeIfPresent(key, (k, entry) -> {
+            if (entry.isExpired()) {
+                return null;
+            }
+            if (entry.verified() || !entry.code().equals(code)) {
+                return entry;
+            }
+            verified[0] = true;
+            return new Entry(entry.code(), entry.expiresAt(), true);
+        });
+        return verified[0];
+    }
+
+    @Override
+    public void remove(String key) {
+        entries.remove(key);
+    }
+
+    // Xóa entry hết hạn; chỉ xóa nếu entry chưa bị thay bằng OTP mới
+    @Scheduled(fixedDelayString = "${otp.reclaim-interval:PT30S}")
+    public void reclaimExpired() {
+        ExpiryToken token;
+        while ((token = expiries.poll()) != null) {
+            ExpiryToken expired = token;
+            entries.computeIfPresent(expired.key(), (k, entry) ->
+                    entry.code().equals(expired.entry().code()) && entry.expiresAt().equals(expired.entry().expiresAt())
+                            ? null : entry);
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package data.service.impl;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import data.repository.OtpRepository;
+import data.service.OtpStore;
+import lombok.RequiredArgsConstructor;
+
+// OTP trong bảng otp_store, dùng khi chạy nhiều instance
+@Component
+@ConditionalOnProperty(name = "otp.store", havingValue = "jdbc")
+@RequiredArgsConstructor
+public class JdbcOtpStore implements OtpStore {
+
+    private static final int RECLAIM_BATCH_SIZE = 500;
+
+    private final OtpRepository otpRepository;
+
+    @Override
+    public void put(String key, String code, Duration ttl) {
+        otpRepository.upsert(key, code, LocalDateTime.now().plus(ttl));
+    }
+
+    @Override
+    public Optional<Entry> get(String key) {
+        return otpRepository.findById(key)
+                .map(otp -> new Entry(otp.getOtpCode(), otp.getExpiredAt(), otp.isVerified()))
+                .filter(entry -> !entry.isExpired());
+    }
+
+    @Override
+    public boolean verify(String key, String code) {
+        return otpRepository.markVerified(key, code, LocalDateTime.now()) == 1;
+    }
+
+    // Transaction riêng: OTP bị hủy (vd. nhập sai khi reset password) không được khôi phục khi request lỗi rollback
+    @Override
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void remove(String key) {
+        otpRepository.deleteByKey(key);
+    }
+
+    @Scheduled(fixedDelayString = "${otp.reclaim-interval:PT30S}")
+    public void reclaimExpired() {
+        LocalDateTime now = LocalDateTime.now();
+        while (otpRepository.deleteExpired(now, RECLAIM_BATCH_SIZE) == RECLAIM_BATCH_SIZE) {
+            // còn dòng hết hạn, xóa tiếp lô sau
+        }
+    }
+}
@@ -1,25 +1,49 @@
 package data.service.impl;
 
+import data.dto.response.CursorPageResponse;
 import data.dto.response.NotificationResponseDTO;
 import data.entity.Notification;
 import data.entity.User;
 import data.exception.NotFoundException;
 import data.repository.NotificationRepository;
 import data.service.NotificationService;
+import data.service.NotificationStreamRegistry;
+import data.service.UnreadCounterCache;
 import data.service.UserService;
+import data.utils.CursorPaging;
+import data.utils.TransactionHooks;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
+@Slf4j
 public class NotificationServiceImpl implements NotificationService {
     
     private final NotificationRepository notificationRepository;
     private final UserService userService;
+    private final NotificationStreamRegistry notificationStream;
+    private final UnreadCounterCache unreadCounter;
+    
+    @Value("${notification.retention.read-max-age:P90D}")
+    private Duration readRetention;
+    
+    @Value("${notification.retention.batch-size:1000}")
+    private int purgeBatchSize;
+    
+    @Value("${notification.retention.batch-pause:PT0.2S}")
+    private Duration purgeBatchPause;
     
     @Override
     @Transactional(readOnly = true)
@@ -30,6 +54,58 @@ public class NotificationServiceImpl implements NotificationService {
             .collect(Collectors.toList());
     }
     
+    // cursor có dạng "<createdAt>_<notificationId>" của phần tử cuối trang trước
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageResponse<NotificationResponseDTO> getNotificationsPage(Integer userId, String cursor, Integer size) {
+        int pageSize = CursorPaging.clampSize(size);
+        LocalDateTime cursorCreatedAt = null;
+        Integer cursorId = null;
+        if (cursor != null && !cursor.isBlank()) {
+            int separator = cursor.lastIndexOf('_');
+            try {
+                cursorCreatedAt = LocalDateTime.parse(cursor.substring(0, separator));
+                cursorId = Integer.valueOf(cursor.substring(separator + 1));
+            } catch (DateTimeParseException | NumberFormatException | IndexOutOfBoundsException e) {
+                throw new RuntimeException("Cursor không hợp lệ");
+            }
+        }
+        
+        List<Notification> notifications = notificationRepository.findPageBefore(
+            userId, cursorCreatedAt, cursorId, CursorPaging.probe(pageSize));
+        boolean hasMore = notifications.size() > pageSize;
+        List<Notification> page = hasMore ? notifications.subList(0, pageSize) : notifications;
+        Notification last = page.isEmpty() ? null : page.get(page.size() - 1);
+        
+        return CursorPageResponse.<NotificationResponseDTO>builder()
+            .items(page.stream().map(this::toDTO).toList())
+            .nextCursor(hasMore ? last.getCreatedAt() + "_" + last.getNotificationId() : null)
+            .hasMore(hasMore)
+            .size(page.size())
+            .build();
+    }
+    
+    // Xóa thông báo đã đọc quá hạn theo từng lô nhỏ, nghỉ giữa các lô để không giữ lock lâu
+    @Scheduled(cron = "${notification.retention.cron:0 15 3 * * *}")
+    public void purgeReadNotifications() {
+        LocalDateTime before = LocalDateTime.now().minus(readRetention);
+        int total = 0;
+        int deleted;
+        do {
+            deleted = notificationRepository.deleteReadBefore(before, purgeBatchSize);
+            total += deleted;
+            if (deleted == purgeBatchSize) {
+                try {
+                    Thread.sleep(purgeBatchPause.toMillis());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+        } while (deleted == purgeBatchSize);
+        log.info("Purged {} read notifications older than {}", total, before);
+    }
+    
     @Override
     @Transactional(readOnly = true)
     public List<NotificationResponseDTO> getUnreadNotifications(Integer userId) {
@@ -42,29 +118,48 @@ public class NotificationServiceImpl implements NotificationService {
     @Override
     @Transactional
     public NotificationResponseDTO markAsRead(Integer notificationId) {
-        User currentUser = userService.getCurrentUser();
+        Integer currentUserId = userService.getCurrentUserId();
         Notification notification = notificationRepository.findById(notificationId)
             .orElseThrow(() -> new NotFoundException("Không tìm thấy thông báo với ID: " + notificationId));
         
-        if (!notification.getUser().getUserId().equals(currentUser.getUserId())) {
+        if (!notification.getUser().getUserId().equals(currentUserId)) {
             throw new RuntimeException("Bạn không có quyền đánh dấu thông báo này");
         }
         
+        boolean wasUnread = !Boolean.TRUE.equals(notification.getIsRead());
         notification.setIsRead(true);
         notification = notificationRepository.save(notification);
+        if (wasUnread) {
+            unreadCounter.add(currentUserId, -1);
+        }
+        pushUnreadCountAfterCommit(currentUserId);
         return toDTO(notification);
     }
     
+    // Một câu UPDATE cho cả danh sách, id không thuộc user hiện tại bị bỏ qua; trả về số chưa đọc mới
+    @Override
+    public Long markAsRead(List<Integer> notificationIds) {
+        Integer currentUserId = userService.getCurrentUserId();
+        int updated = notificationRepository.markAsRead(notificationIds, currentUserId);
+        if (updated > 0) {
+            unreadCounter.add(currentUserId, -updated);
+            pushUnreadCountAfterCommit(currentUserId);
+        }
+        return getUnreadCount(currentUserId);
+    }
+    
     @Override
     @Transactional
     public void markAllAsRead(Integer userId) {
         notificationRepository.markAllAsRead(userId);
+        unreadCounter.reset(userId);
+        pushUnreadCountAfterCommit(userId);
     }
     
+    // Đọc từ bộ đếm trong bộ nhớ; chỉ COUNT trên DB khi user chưa có trong cache
     @Override
-    @Transactional(readOnly = true)
     public Long getUnreadCount(Integer userId) {
-        return notificationRepository.countByUser_UserIdAndIsReadFalse(userId);
+        return unreadCounter.get(userId, () -> notificationRepository.countByUser_UserIdAndIsReadFalse(userId));
     }
     
     @Override
@@ -80,6 +175,39 @@ public class NotificationServiceImpl implements NotificationService {
             .relatedBookingId(relatedBookingId)
             .build();
         notificationRepository.save(notification);
+        unreadCounter.add(userId, 1);
+        pushAfterCommit(List.of(notification));
+    }
+    
+    @Override
+    @Transactional
+    public void createNotifications(List<Notification> notifications) {
+        notificationRepository.saveAll(notifications);
+        notifications.stream()
+            .collect(Collectors.groupingBy(n -> n.getUser().getUserId(), Collectors.counting()))
+            .forEach(unreadCounter::add);
+        pushAfterCommit(notifications);
+    }
+    
+    // Đẩy thông báo mới qua SSE cho các user đang kết nối, sau khi dữ liệu đã commit
+    private void pushAfterCommit(List<Notification> notifications) {
+        Map<Integer, List<Notification>> byUser = notifications.stream()
+            .filter(n -> notificationStream.isConnected(n.getUser().getUserId()))
+            .collect(Collectors.groupingBy(n -> n.getUser().getUserId()));
+        if (byUser.isEmpty()) {
+            return;
+        }
+        TransactionHooks.afterCommit(() -> byUser.forEach((userId, list) -> notificationStream.pushNotifications(
+            userId,
+            list.stream().map(this::toDTO).toList(),
+            getUnreadCount(userId))));
+    }
+    
+    private void pushUnreadCountAfterCommit(Integer userId) {
+        if (!notificationStream.isConnected(userId)) {
+            return;
+        }
+        TransactionHooks.afterCommit(() -> notificationStream.pushUnreadCount(userId, getUnreadCount(userId)));
     }
     
     private NotificationResponseDTO toDTO(Notification notification) {
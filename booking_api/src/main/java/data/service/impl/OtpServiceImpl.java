@@ -1,19 +1,18 @@
 package data.service.impl;
 
-import java.time.LocalDateTime;
+import java.time.Duration;
 import java.util.Optional;
 import java.util.Random;
 
 import jakarta.mail.MessagingException;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
-import data.entity.Otp;
 import data.entity.User;
-import data.repository.OtpRepository;
+import data.service.OtpStore;
 import data.repository.UserRepository;
 import data.service.OtpService;
 import data.service.EmailService;
+import data.utils.TransactionHooks;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
@@ -22,11 +21,12 @@ import lombok.extern.slf4j.Slf4j;
 @RequiredArgsConstructor
 public class OtpServiceImpl implements OtpService {
     
-    private final OtpRepository otpRepository;
+    private final OtpStore otpStore;
     private final UserRepository userRepository;
     private final EmailService emailService;
     private static final int OTP_EXPIRY_MINUTES = 5;
     private static final int OTP_LENGTH = 4; // Tạo 4 chữ số OTP
+    private static final Duration OTP_TTL = Duration.ofMinutes(OTP_EXPIRY_MINUTES);
 
     @Override
     public String generateOtpCode() {
@@ -39,126 +39,73 @@ public class OtpServiceImpl implements OtpService {
     }
 
     @Override
-    @Transactional
-    public Otp createOtp(User user) {
-        // Tìm OTP cũ nếu có
-        Optional<Otp> existingOtpOpt = otpRepository.findByUser(user);
+    public void createOtp(User user) {
+        String key = keyFor(user);
+        String email = user.getEmail();
+        String phoneNumber = user.getPhoneNumber();
+        // Chỉ ghi OTP và gửi mail khi user đã commit (vd. registerUser): rollback thì không để lại OTP mồ côi
+        TransactionHooks.afterCommit(() -> issueOtp(key, email, phoneNumber));
+    }
+
+    // Ghi đè OTP cũ (nếu có) của key rồi gửi qua Email (ưu tiên), fallback SMS/log
+    private void issueOtp(String key, String email, String phoneNumber) {
         String otpCode = generateOtpCode();
-        LocalDateTime expiredAt = LocalDateTime.now().plusMinutes(OTP_EXPIRY_MINUTES);
-        
-        Otp otp;
-        if (existingOtpOpt.isPresent()) {
-            // Cập nhật OTP cũ thay vì xóa và tạo mới để tránh duplicate key constraint
-            otp = existingOtpOpt.get();
-            otp.setOtpCode(otpCode);
-            otp.setExpiredAt(expiredAt);
-            otp.setVerified(false);
-            otp = otpRepository.save(otp);
-            log.info("OTP updated for user: {}, OTP: {}", user.getEmail(), otpCode);
-        } else {
-            // Tạo OTP mới nếu chưa có
-            otp = Otp.builder()
-                    .otpCode(otpCode)
-                    .user(user)
-                    .expiredAt(expiredAt)
-                    .verified(false)
-                    .build();
-            otp = otpRepository.save(otp);
-            log.info("OTP created for user: {}, OTP: {}", user.getEmail(), otpCode);
-        }
-        
-        // Gửi OTP qua Email (ưu tiên)
+        otpStore.put(key, otpCode, OTP_TTL);
+        log.info("OTP created for: {}, OTP: {}", key, otpCode);
+
         try {
-            if (user.getEmail() != null && !user.getEmail().isEmpty()) {
-                emailService.sendOtpEmail(user.getEmail(), otpCode);
-                log.info("OTP sent to email: {}", user.getEmail());
+            if (email != null && !email.isEmpty()) {
+                emailService.sendOtpEmail(email, otpCode, () -> sendOtpSms(phoneNumber, otpCode));
+                log.info("OTP email queued for: {}", email);
             } else {
                 // fallback to SMS/log
-                sendOtpSms(user.getPhoneNumber(), otpCode);
+                sendOtpSms(phoneNumber, otpCode);
             }
         } catch (MessagingException e) {
             // Nếu gửi email thất bại, fallback về SMS/log để đảm bảo người dùng vẫn nhận OTP
-            log.warn("Failed to send OTP email to {}: {}. Falling back to SMS/log.", user.getEmail(), e.getMessage());
-            sendOtpSms(user.getPhoneNumber(), otpCode);
+            log.warn("Failed to send OTP email to {}: {}. Falling back to SMS/log.", email, e.getMessage());
+            sendOtpSms(phoneNumber, otpCode);
         }
-
-        return otp;
     }
 
     @Override
-    @Transactional
     public boolean verifyOtp(String otpCode, String phoneNumber) {
-        Optional<User> userOpt = userRepository.findByPhoneNumber(phoneNumber);
-        if (userOpt.isEmpty()) {
-            log.warn("User not found with phone number: {}", phoneNumber);
-            return false;
-        }
-
-        User user = userOpt.get();
-        Optional<Otp> otpOpt = otpRepository.findByOtpCodeAndUser(otpCode, user);
-        
-        if (otpOpt.isEmpty()) {
-            log.warn("Invalid OTP code: {} for user: {}", otpCode, phoneNumber);
+        if (!otpStore.verify(phoneNumber, otpCode)) {
+            log.warn("Invalid, expired or already verified OTP: {} for phone: {}", otpCode, phoneNumber);
             return false;
         }
-
-        Otp otp = otpOpt.get();
-        
-        // Kiểm tra OTP đã được verify chưa
-        if (otp.isVerified()) {
-            log.warn("OTP already verified for user: {}", phoneNumber);
-            return false;
-        }
-
-        // Kiểm tra OTP hết hạn
-        if (otp.getExpiredAt().isBefore(LocalDateTime.now())) {
-            log.warn("OTP expired for user: {}", phoneNumber);
-            otpRepository.delete(otp);
-            return false;
-        }
-
-        // Đánh dấu OTP đã được verify
-        otp.setVerified(true);
-        otpRepository.save(otp);
-        
         log.info("OTP verified successfully for user: {}", phoneNumber);
         return true;
     }
 
     @Override
     public boolean validateOtpForReset(String otpCode, String phoneNumber) {
-        Optional<User> userOpt = userRepository.findByPhoneNumber(phoneNumber);
-        if (userOpt.isEmpty()) {
-            log.warn("User not found with phone number: {}", phoneNumber);
+        // OTP phải đúng mã, đã verify ở bước verify-otp screen và chưa hết hạn
+        Optional<OtpStore.Entry> entry = otpStore.get(phoneNumber);
+        if (entry.isEmpty()) {
+            log.warn("Invalid or expired OTP code: {} for user: {}", otpCode, phoneNumber);
             return false;
         }
-
-        User user = userOpt.get();
-        Optional<Otp> otpOpt = otpRepository.findByOtpCodeAndUser(otpCode, user);
-        
-        if (otpOpt.isEmpty()) {
-            log.warn("Invalid OTP code: {} for user: {}", otpCode, phoneNumber);
+        if (!entry.get().code().equals(otpCode)) {
+            // Chỉ cho nhập một lần: sai mã thì hủy OTP, phải gửi lại OTP mới để chống dò mã
+            otpStore.remove(phoneNumber);
+            log.warn("Wrong OTP code: {} for user: {}, OTP revoked", otpCode, phoneNumber);
             return false;
         }
-
-        Otp otp = otpOpt.get();
-        
-        // Kiểm tra OTP đã được verify (đã verify ở bước verify-otp screen)
-        if (!otp.isVerified()) {
+        if (!entry.get().verified()) {
             log.warn("OTP not verified yet for user: {}", phoneNumber);
             return false;
         }
-
-        // Kiểm tra OTP hết hạn (kiểm tra thêm 5 phút sau khi verify)
-        if (otp.getExpiredAt().isBefore(LocalDateTime.now())) {
-            log.warn("OTP expired for user: {}", phoneNumber);
-            return false;
-        }
         
         log.info("OTP validated for reset password for user: {}", phoneNumber);
         return true;
     }
 
+    @Override
+    public boolean isOtpVerified(User user) {
+        return otpStore.get(keyFor(user)).map(OtpStore.Entry::verified).orElse(false);
+    }
+
     @Override
     public void sendOtpSms(String phoneNumber, String otpCode) {
         try {
@@ -181,89 +128,44 @@ public class OtpServiceImpl implements OtpService {
     }
 
     @Override
-    @Transactional
     public void resendOtp(String phoneNumber) {
-        Optional<User> userOpt = userRepository.findByPhoneNumber(phoneNumber);
-        if (userOpt.isEmpty()) {
-            throw new RuntimeException("Không tìm thấy người dùng với số điện thoại: " + phoneNumber);
-        }
+        // OTP được key theo số điện thoại nên không cần nạp User; chỉ đọc email để gửi mail
+        String phone = phoneNumber.trim();
+        String email = userRepository.findEmailByPhoneNumber(phone)
+                .orElseThrow(() -> new RuntimeException("Không tìm thấy người dùng với số điện thoại: " + phone));
 
-        User user = userOpt.get();
-        createOtp(user);
-        log.info("OTP resent to phone: {}", phoneNumber);
+        issueOtp(phone, email, phone);
+        log.info("OTP resent to phone: {}", phone);
     }
 
     @Override
-    @Transactional
-    public Otp createOtpForPhoneChange(User user, String newPhoneNumber) {
-        // Tìm OTP cũ nếu có
-        Optional<Otp> existingOtpOpt = otpRepository.findByUser(user);
+    public void createOtpForPhoneChange(User user, String newPhoneNumber) {
         String otpCode = generateOtpCode();
-        LocalDateTime expiredAt = LocalDateTime.now().plusMinutes(OTP_EXPIRY_MINUTES);
-        
-        Otp otp;
-        if (existingOtpOpt.isPresent()) {
-            // Cập nhật OTP cũ thay vì xóa và tạo mới để tránh duplicate key constraint
-            otp = existingOtpOpt.get();
-            otp.setOtpCode(otpCode);
-            otp.setExpiredAt(expiredAt);
-            otp.setVerified(false);
-            otp = otpRepository.save(otp);
-            log.info("OTP updated for phone change - user: {}, new phone: {}, OTP: {}", user.getEmail(), newPhoneNumber, otpCode);
-        } else {
-            // Tạo OTP mới nếu chưa có
-            otp = Otp.builder()
-                    .otpCode(otpCode)
-                    .user(user)
-                    .expiredAt(expiredAt)
-                    .verified(false)
-                    .build();
-            otp = otpRepository.save(otp);
-            log.info("OTP created for phone change - user: {}, new phone: {}, OTP: {}", user.getEmail(), newPhoneNumber, otpCode);
-        }
+        otpStore.put(keyFor(user), otpCode, OTP_TTL);
+        log.info("OTP created for phone change - user: {}, new phone: {}, OTP: {}", user.getEmail(), newPhoneNumber, otpCode);
         
         // Gửi OTP đến số điện thoại mới
         sendOtpSms(newPhoneNumber, otpCode);
-        
-        return otp;
     }
 
     @Override
-    @Transactional
     public boolean verifyOtpForUser(String otpCode, User user) {
-        Optional<Otp> otpOpt = otpRepository.findByOtpCodeAndUser(otpCode, user);
-        
-        if (otpOpt.isEmpty()) {
-            log.warn("Invalid OTP code: {} for user: {}", otpCode, user.getEmail());
+        if (!otpStore.verify(keyFor(user), otpCode)) {
+            log.warn("Invalid, expired or already verified OTP: {} for user: {}", otpCode, user.getEmail());
             return false;
         }
-
-        Otp otp = otpOpt.get();
-        
-        // Kiểm tra OTP đã được verify chưa
-        if (otp.isVerified()) {
-            log.warn("OTP already verified for user: {}", user.getEmail());
-            return false;
-        }
-
-        // Kiểm tra OTP hết hạn
-        if (otp.getExpiredAt().isBefore(LocalDateTime.now())) {
-            log.warn("OTP expired for user: {}", user.getEmail());
-            otpRepository.delete(otp);
-            return false;
-        }
-
-        // Đánh dấu OTP đã được verify
-        otp.setVerified(true);
-        otpRepository.save(otp);
-        
         log.info("OTP verified successfully for user: {}", user.getEmail());
         return true;
     }
 
     @Override
-    @Transactional
     public void deleteOtp(User user) {
-        otpRepository.deleteByUser(user);
+        otpStore.remove(keyFor(user));
+    }
+
+    // OTP gắn với số điện thoại hiện tại của user; user chưa có số thì dùng userId
+    private String keyFor(User user) {
+        String phoneNumber = user.getPhoneNumber();
+        return phoneNumber != null && !phoneNumber.isEmpty() ? phoneNumber : "uid:" + user.getUserId();
     }
 }
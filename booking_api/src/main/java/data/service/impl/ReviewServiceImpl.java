@@ -10,6 +10,7 @@ import data.mapper.ReviewMapper;
 import data.repository.RoomRepository;
 import data.repository.ReviewRepository;
 import data.service.ReviewService;
+import data.service.RoomRatingService;
 import data.service.UserService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
@@ -24,11 +25,12 @@ public class ReviewServiceImpl implements ReviewService {
     private final ReviewRepository reviewRepository;
     private final RoomRepository roomRepository;
     private final UserService userService;
+    private final RoomRatingService roomRatingService;
     
     @Override
     @Transactional
     public ReviewResponseDTO createReview(ReviewRequest request) {
-        User user = userService.getCurrentUser();
+        User user = userService.getCurrentUserReference();
         Room room = roomRepository.findById(request.getRoomId())
             .orElseThrow(() -> new NotFoundException("Không tìm thấy phòng với ID: " + request.getRoomId()));
         
@@ -44,34 +46,36 @@ public class ReviewServiceImpl implements ReviewService {
             .build();
         
         review = reviewRepository.save(review);
+        roomRatingService.recordRating(room.getRoomId(), review.getRating());
         return ReviewMapper.toDTO(review);
     }
     
     @Override
     @Transactional
     public ReviewResponseDTO updateReview(Integer reviewId, ReviewRequest request) {
-        User user = userService.getCurrentUser();
+        Integer currentUserId = userService.getCurrentUserId();
         Review review = reviewRepository.findById(reviewId)
             .orElseThrow(() -> new NotFoundException("Không tìm thấy review với ID: " + reviewId));
         
         // Check if the review belongs to the current user
-        if (!review.getUser().getUserId().equals(user.getUserId())) {
+        if (!review.getUser().getUserId().equals(currentUserId)) {
             throw new RuntimeException("Bạn không có quyền cập nhật đánh giá này");
         }
         
         // Update review
+        Integer oldRating = review.getRating();
         review.setRating(request.getRating());
         review.setComment(request.getComment());
         
         review = reviewRepository.save(review);
+        roomRatingService.recordRatingChange(review.getRoom().getRoomId(), oldRating, review.getRating());
         return ReviewMapper.toDTO(review);
     }
     
     @Override
     @Transactional(readOnly = true)
     public ReviewResponseDTO getMyReviewByRoomId(Integer roomId) {
-        User user = userService.getCurrentUser();
-        Review review = reviewRepository.findByUser_UserIdAndRoom_RoomId(user.getUserId(), roomId);
+        Review review = reviewRepository.findByUser_UserIdAndRoom_RoomId(userService.getCurrentUserId(), roomId);
         if (review == null) {
             return null;
         }
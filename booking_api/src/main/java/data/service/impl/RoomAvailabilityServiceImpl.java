@@ -0,0 +1,97 @@
+package data.service.impl;
+
+import data.entity.Bookings;
+import data.repository.BookingRepository;
+import data.repository.RoomNightRepository;
+import data.service.RoomAvailabilityCache;
+import data.service.RoomAvailabilityService;
+import data.utils.BookingStatus;
+import data.utils.TransactionHooks;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class RoomAvailabilityServiceImpl implements RoomAvailabilityService {
+
+    private final RoomNightRepository roomNightRepository;
+    private final BookingRepository bookingRepository;
+    private final RoomAvailabilityCache roomAvailabilityCache;
+
+    // Đồng bộ các booking còn hiệu lực được tạo trước khi có bảng room_nights
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void seedFromExistingBookings() {
+        List<Bookings> bookings = bookingRepository.findActiveBookingsWithoutNights(LocalDate.now());
+        for (Bookings booking : bookings) {
+            int claimed = claimNights(booking);
+            long nights = booking.getCheckIn().datesUntil(booking.getCheckOut()).count();
+            if (claimed < nights) {
+                log.warn("Booking #{} overlaps another booking on room {} ({} of {} nights claimed)",
+                        booking.getBookingId(), booking.getRoom().getRoomId(), claimed, nights);
+            }
+        }
+        if (!bookings.isEmpty()) {
+            log.info("Room nights seeded for {} existing bookings", bookings.size());
+        }
+    }
+
+    @Override
+    @Transactional
+    public void reserve(Bookings booking) {
+        long nights = booking.getCheckIn().datesUntil(booking.getCheckOut()).count();
+        if (claimNights(booking) < nights) {
+            // Ném lỗi để rollback cả booking lẫn các đêm đã giữ trong cùng transaction
+            throw new RuntimeException("Phòng đã được đặt trong khoảng thời gian này. Vui lòng chọn ngày khác.");
+        }
+        syncCache(booking);
+    }
+
+    @Override
+    @Transactional
+    public void release(Bookings booking) {
+        roomNightRepository.releaseBooking(booking.getBookingId());
+        syncCache(booking);
+    }
+
+    // Cập nhật bitmap sau khi commit để booking bị rollback không làm bẩn cache
+    @Override
+    public void syncCache(Bookings booking) {
+        Integer roomId = booking.getRoom().getRoomId();
+        LocalDate checkIn = booking.getCheckIn();
+        LocalDate checkOut = booking.getCheckOut();
+        if (booking.getStatus() == BookingStatus.CANCELLED) {
+            TransactionHooks.afterCommit(() -> roomAvailabilityCache.markFree(roomId, checkIn, checkOut));
+        } else {
+            TransactionHooks.afterCommit(() -> roomAvailabilityCache.markBooked(roomId, checkIn, checkOut));
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public boolean isAvailable(Integer roomId, LocalDate checkIn, LocalDate checkOut) {
+        Boolean cached = roomAvailabilityCache.isAvailable(roomId, checkIn, checkOut);
+        if (cached != null) {
+            return cached;
+        }
+        return !roomNightRepository.existsOverlap(roomId, checkIn, checkOut);
+    }
+
+    // Giữ từng đêm theo thứ tự tăng dần để các transaction đồng thời khóa theo cùng thứ tự
+    private int claimNights(Bookings booking) {
+        Integer roomId = booking.getRoom().getRoomId();
+        int claimed = 0;
+        for (LocalDate night = booking.getCheckIn(); night.isBefore(booking.getCheckOut()); night = night.plusDays(1)) {
+            claimed += roomNightRepository.claimNight(roomId, night, booking.getBookingId());
+        }
+        return claimed;
+    }
+}
@@ -0,0 +1,91 @@
+package data.service.impl;
+
+import data.dto.response.RoomRatingSummary;
+import data.entity.RoomRating;
+import data.repository.ReviewRepository;
+import data.repository.RoomRatingRepository;
+import data.service.RoomRatingService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class RoomRatingServiceImpl implements RoomRatingService {
+
+    private final RoomRatingRepository roomRatingRepository;
+    private final ReviewRepository reviewRepository;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void rebuildOnStartup() {
+        int rows = roomRatingRepository.rebuildFromReviews();
+        int removed = roomRatingRepository.deleteWithoutReviews();
+        log.info("Room rating aggregates rebuilt from reviews ({} rows affected, {} stale rows removed)", rows, removed);
+    }
+
+    @Override
+    @Transactional
+    public void recordRating(Integer roomId, Integer rating) {
+        if (roomId == null || rating == null) {
+            return;
+        }
+        roomRatingRepository.addRating(roomId, rating);
+    }
+
+    @Override
+    @Transactional
+    public void recordRatingChange(Integer roomId, Integer oldRating, Integer newRating) {
+        if (roomId == null || newRating == null) {
+            return;
+        }
+        if (oldRating == null) {
+            roomRatingRepository.addRating(roomId, newRating);
+            return;
+        }
+        long delta = newRating - oldRating;
+        if (delta != 0 && roomRatingRepository.adjustRatingSum(roomId, delta) == 0) {
+            // Chưa có dòng tổng hợp cho phòng này: tính lại từ reviews (đã gồm điểm mới)
+            roomRatingRepository.rebuildRoom(roomId);
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Map<Integer, RoomRating> getRatings(Collection<Integer> roomIds) {
+        Set<Integer> ids = roomIds.stream()
+            .filter(Objects::nonNull)
+            .collect(Collectors.toSet());
+        if (ids.isEmpty()) {
+            return Map.of();
+        }
+        Map<Integer, RoomRating> ratings = roomRatingRepository.findAllById(ids).stream()
+            .collect(Collectors.toMap(RoomRating::getRoomId, Function.identity()));
+
+        // Phòng chưa có dòng tổng hợp: tính bằng một truy vấn GROUP BY duy nhất
+        Set<Integer> missing = new HashSet<>(ids);
+        missing.removeAll(ratings.keySet());
+        if (!missing.isEmpty()) {
+            for (RoomRatingSummary summary : reviewRepository.summarizeByRoomIds(missing)) {
+                ratings.put(summary.getRoomId(), RoomRating.builder()
+                    .roomId(summary.getRoomId())
+                    .reviewCount(summary.getReviewCount().intValue())
+                    .ratingSum(summary.getRatingSum())
+                    .build());
+            }
+        }
+        return ratings;
+    }
+}
@@ -1,16 +1,32 @@
 package data.service.impl;
 
+import data.config.CacheConfig;
+import data.dto.response.BookedRange;
+import data.dto.response.CursorPageResponse;
+import data.dto.response.RoomCalendarDTO;
+import data.dto.response.RoomImageUrl;
 import data.dto.response.RoomResponseDTO;
 import data.entity.Room;
 import data.entity.Hotel;
+import data.entity.RoomRating;
+import data.exception.NotFoundException;
 import data.mapper.RoomMapper;
+import data.repository.BookingRepository;
+import data.repository.RoomImageRepository;
 import data.repository.RoomRepository;
-import data.repository.ReviewRepository;
 import data.repository.HotelRepository;
+import data.service.RoomAvailabilityCache;
+import data.service.RoomRatingService;
 import data.service.RoomService;
+import data.utils.CursorPaging;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -23,26 +39,31 @@ public class RoomServiceImpl implements RoomService {
     private RoomRepository roomRepository;
     
     @Autowired
-    private ReviewRepository reviewRepository;
+    private RoomRatingService roomRatingService;
     
     @Autowired
     private HotelRepository hotelRepository;
 
+    @Autowired
+    private RoomImageRepository roomImageRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private RoomAvailabilityCache roomAvailabilityCache;
+
+    private static final int MAX_CALENDAR_DAYS = 366;
+
     private void enrichWithRatings(List<RoomResponseDTO> roomDTOs) {
+        Map<Integer, RoomRating> ratings = roomRatingService.getRatings(
+            roomDTOs.stream().map(RoomResponseDTO::getRoomId).toList());
+        
         for (RoomResponseDTO roomDTO : roomDTOs) {
-            if (roomDTO.getRoomId() != null) {
-                var reviews = reviewRepository.findByRoom_RoomId(roomDTO.getRoomId());
-                
-                if (!reviews.isEmpty()) {
-                    int reviewCount = reviews.size();
-                    double rating = reviews.stream()
-                        .mapToInt(r -> r.getRating())
-                        .average()
-                        .orElse(0.0);
-                    
-                    roomDTO.setRating(rating);
-                    roomDTO.setReviewCount(reviewCount);
-                }
+            RoomRating rating = ratings.get(roomDTO.getRoomId());
+            if (rating != null && rating.getReviewCount() > 0) {
+                roomDTO.setRating(rating.getAverageRating());
+                roomDTO.setReviewCount(rating.getReviewCount());
             }
         }
     }
@@ -58,11 +79,8 @@ public class RoomServiceImpl implements RoomService {
             .map(RoomResponseDTO::getHotelId)
             .collect(Collectors.toSet());
         
-        Map<Integer, Hotel> hotelsMap = hotelIds.stream()
-            .collect(Collectors.toMap(
-                id -> id,
-                id -> hotelRepository.findById(id).orElse(null)
-            ));
+        Map<Integer, Hotel> hotelsMap = hotelRepository.findAllById(hotelIds).stream()
+            .collect(Collectors.toMap(Hotel::getHotelId, hotel -> hotel));
         
         roomDTOs.forEach(roomDTO -> {
             if (roomDTO.getHotelId() != null) {
@@ -96,6 +114,65 @@ public class RoomServiceImpl implements RoomService {
 
     @Override
     @org.springframework.transaction.annotation.Transactional(readOnly = true)
+    public CursorPageResponse<RoomResponseDTO> getRoomsPage(Integer cursor, Integer size) {
+        int pageSize = CursorPaging.clampSize(size);
+        List<Room> rooms = roomRepository.findPageAfter(cursor, CursorPaging.probe(pageSize));
+        return toPage(rooms, pageSize);
+    }
+
+    @Override
+    @org.springframework.transaction.annotation.Transactional(readOnly = true)
+    public CursorPageResponse<RoomResponseDTO> getRoomsByHotelIdPage(Integer hotelId, Integer cursor, Integer size) {
+        int pageSize = CursorPaging.clampSize(size);
+        List<Room> rooms = roomRepository.findPageByHotelAfter(hotelId, cursor, CursorPaging.probe(pageSize));
+        return toPage(rooms, pageSize);
+    }
+
+    @Override
+    @org.springframework.transaction.annotation.Transactional(readOnly = true)
+    public CursorPageResponse<RoomResponseDTO> searchAvailableRooms(String city, LocalDate checkIn, LocalDate checkOut,
+                                                                    Integer guests, Integer cursor, Integer size) {
+        if (city == null || city.trim().isEmpty()) {
+            throw new RuntimeException("Vui lòng chọn thành phố");
+        }
+        if (checkIn == null || checkOut == null || !checkIn.isBefore(checkOut)) {
+            throw new RuntimeException("Ngày trả phòng phải sau ngày nhận phòng");
+        }
+        int guestCount = guests == null || guests < 1 ? 1 : guests;
+        int pageSize = CursorPaging.clampSize(size);
+        List<Room> rooms = roomRepository.findAvailablePage(city.trim(), guestCount, checkIn, checkOut, cursor,
+            CursorPaging.probe(pageSize));
+        return toPage(rooms, pageSize);
+    }
+
+    // Trang phòng + một truy vấn thumbnail theo lô + một lần tra rating theo lô
+    private CursorPageResponse<RoomResponseDTO> toPage(List<Room> rooms, int pageSize) {
+        boolean hasMore = rooms.size() > pageSize;
+        List<Room> page = hasMore ? rooms.subList(0, pageSize) : rooms;
+
+        List<Integer> roomIds = page.stream().map(Room::getRoomId).toList();
+        Map<Integer, String> thumbnailByRoom = roomIds.isEmpty()
+            ? Map.of()
+            : roomImageRepository.findFirstUrlsByRoomIds(roomIds).stream()
+                .collect(Collectors.toMap(RoomImageUrl::getRoomId, RoomImageUrl::getImageUrl));
+
+        List<RoomResponseDTO> roomDTOs = new ArrayList<>(page.size());
+        for (Room room : page) {
+            roomDTOs.add(RoomMapper.toListDTO(room, thumbnailByRoom.get(room.getRoomId())));
+        }
+        enrichWithRatings(roomDTOs);
+
+        return CursorPageResponse.<RoomResponseDTO>builder()
+            .items(roomDTOs)
+            .nextCursor(hasMore ? String.valueOf(page.get(page.size() - 1).getRoomId()) : null)
+            .hasMore(hasMore)
+            .size(roomDTOs.size())
+            .build();
+    }
+
+    @Override
+    @Cacheable(cacheNames = CacheConfig.ROOM_DETAIL, key = "#roomId", unless = "#result == null")
+    @org.springframework.transaction.annotation.Transactional(readOnly = true)
     public RoomResponseDTO getRoomById(Integer roomId) {
         Room room = roomRepository.findByRoomId(roomId).orElse(null);
         if (room == null) return null;
@@ -109,16 +186,7 @@ public class RoomServiceImpl implements RoomService {
             }
         }
         
-        // Calculate rating and review count for this room
-        var reviews = reviewRepository.findByRoom_RoomId(roomDTO.getRoomId());
-        if (!reviews.isEmpty()) {
-            roomDTO.setReviewCount(reviews.size());
-            roomDTO.setRating(reviews.stream()
-                .mapToInt(r -> r.getRating())
-                .average()
-                .orElse(0.0));
-        }
-        
+        enrichWithRatings(List.of(roomDTO));
         return roomDTO;
     }
 
@@ -133,11 +201,8 @@ public class RoomServiceImpl implements RoomService {
             .map(RoomResponseDTO::getHotelId)
             .collect(Collectors.toSet());
         
-        Map<Integer, Hotel> hotelsMap = hotelIds.stream()
-            .collect(Collectors.toMap(
-                id -> id,
-                id -> hotelRepository.findById(id).orElse(null)
-            ));
+        Map<Integer, Hotel> hotelsMap = hotelRepository.findAllById(hotelIds).stream()
+            .collect(Collectors.toMap(Hotel::getHotelId, hotel -> hotel));
         
         roomDTOs.forEach(roomDTO -> {
             if (roomDTO.getHotelId() != null) {
@@ -151,4 +216,44 @@ public class RoomServiceImpl implements RoomService {
         enrichWithRatings(roomDTOs);
         return roomDTOs;
     }
+
+    @Override
+    @org.springframework.transaction.annotation.Transactional(readOnly = true)
+    public RoomCalendarDTO getRoomCalendar(Integer roomId, LocalDate from, LocalDate to) {
+        // Mặc định từ hôm nay (trùng đầu cửa sổ bitmap) để trường hợp phổ biến không phải xuống DB
+        LocalDate start = from != null ? from : LocalDate.now();
+        LocalDate end = to != null ? to : start.plusMonths(1);
+        if (!start.isBefore(end)) {
+            throw new RuntimeException("Ngày kết thúc phải sau ngày bắt đầu");
+        }
+        if (ChronoUnit.DAYS.between(start, end) > MAX_CALENDAR_DAYS) {
+            throw new RuntimeException("Khoảng thời gian tối đa là " + MAX_CALENDAR_DAYS + " ngày");
+        }
+        if (!roomRepository.existsById(roomId)) {
+            throw new NotFoundException("Không tìm thấy phòng với ID: " + roomId);
+        }
+
+        // Ưu tiên bitmap trong bộ nhớ, ngoài cửa sổ thì dùng một truy vấn khoảng ngày
+        Set<LocalDate> booked;
+        List<LocalDate> cached = roomAvailabilityCache.bookedNights(roomId, start, end);
+        if (cached != null) {
+            booked = new HashSet<>(cached);
+        } else {
+            booked = new HashSet<>();
+            for (BookedRange range : bookingRepository.findActiveRangesForRoom(roomId, start, end)) {
+                range.getCheckIn().datesUntil(range.getCheckOut()).forEach(booked::add);
+            }
+        }
+
+        List<RoomCalendarDTO.Day> days = start.datesUntil(end)
+            .map(day -> new RoomCalendarDTO.Day(day, !booked.contains(day)))
+            .toList();
+
+        return RoomCalendarDTO.builder()
+            .roomId(roomId)
+            .from(start)
+            .to(end)
+            .days(days)
+            .build();
+    }
 }
@@ -2,9 +2,6 @@ package data.service.impl;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.multipart.MultipartFile;
-import com.cloudinary.Cloudinary;
-import com.cloudinary.utils.ObjectUtils;
-import java.util.Map;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
@@ -23,13 +20,14 @@ import data.dto.request.UserLogin;
 import data.dto.request.UserRegister;
 import data.dto.response.JWTResponse;
 import data.dto.response.UserResponseDTO;
-import data.entity.Otp;
 import data.entity.User;
 import data.mapper.UserMapper;
-import data.repository.OtpRepository;
 import data.repository.UserRepository;
 import data.security.jwt.JWTProvider;
+import data.security.config.BoundedPasswordEncoder;
 import data.security.pricipal.CustomUserDetails;
+import data.security.pricipal.PrincipalCache;
+import data.service.AvatarUploadService;
 import data.service.OtpService;
 import data.service.UserService;
 import lombok.extern.slf4j.Slf4j;
@@ -48,9 +46,9 @@ public class UserServiceImpl implements UserService {
     @Autowired
     private OtpService otpService;
     @Autowired
-    private OtpRepository otpRepository;
+    private AvatarUploadService avatarUploadService;
     @Autowired
-    private Cloudinary cloudinary;
+    private PrincipalCache principalCache;
 
     private static final String DEFAULT_AVATAR = "https://static.vecteezy.com/system/resources/thumbnails/009/292/244/small/default-avatar-icon-of-social-media-user-vector.jpg";
 
@@ -64,12 +62,9 @@ public class UserServiceImpl implements UserService {
             throw new RuntimeException("Số điện thoại đã tồn tại");
         }
         
-        // Tạo password tạm thời (sẽ được thay đổi sau khi verify OTP và set password)
-        String tempPassword = "TEMP_PASSWORD_" + System.currentTimeMillis();
-        
         User user = User.builder()
                 .fullName(userRegister.getFullName())
-                .passwordHash(passwordEncoder.encode(tempPassword))
+                .passwordHash(BoundedPasswordEncoder.UNSET_PASSWORD) // Đặt mật khẩu thật sau khi verify OTP
                 .email(userRegister.getEmail())
                 .phoneNumber(userRegister.getPhoneNumber())
                 .dateOfBirth(userRegister.getDateOfBirth())
@@ -92,19 +87,16 @@ public class UserServiceImpl implements UserService {
         User user = userRepository.findByPhoneNumber(phoneNumber)
                 .orElseThrow(() -> new RuntimeException("Không tìm thấy người dùng"));
 
-        Otp otp = otpRepository.findByUser(user)
-                .orElseThrow(() -> new RuntimeException("Không tìm thấy mã OTP. Vui lòng xác thực OTP trước."));
-
-        if (!otp.isVerified()) {
+        if (!otpService.isOtpVerified(user)) {
             throw new RuntimeException("Vui lòng xác thực OTP trước khi đặt mật khẩu");
         }
 
         user.setPasswordHash(passwordEncoder.encode(password));
         user.setEnabled(true);
         userRepository.save(user);
+        principalCache.invalidate(user.getEmail());
 
-        // Xóa OTP theo user thay vì xóa instance đang managed
-        otpRepository.deleteByUser(user);
+        otpService.deleteOtp(user);
 
         log.info("Password set successfully for user: {}", phoneNumber);
     }
@@ -144,6 +136,23 @@ public class UserServiceImpl implements UserService {
 
     }
 
+    // Lấy userId từ principal trong SecurityContext, không cần truy vấn DB
+    @Override
+    public Integer getCurrentUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof CustomUserDetails details
+                && details.getUserId() != null) {
+            return details.getUserId();
+        }
+        return getCurrentUser().getUserId();
+    }
+
+    // Proxy JPA của user hiện tại, chỉ truy vấn khi đọc tới các trường khác ngoài id
+    @Override
+    public User getCurrentUserReference() {
+        return userRepository.getReferenceById(getCurrentUserId());
+    }
+
     @Override
     public User getUserById(Integer userId) {
         return userRepository.findById(userId)
@@ -183,6 +192,7 @@ public class UserServiceImpl implements UserService {
         }
         
         // Cập nhật thông tin
+        principalCache.invalidate(user.getEmail());
         user.setFullName(request.getFullName());
         user.setEmail(request.getEmail());
         if (request.getPhoneNumber() != null && !request.getPhoneNumber().isEmpty()) {
@@ -204,22 +214,14 @@ public class UserServiceImpl implements UserService {
         return UserMapper.toDTO(user);
     }
 
+    // Ảnh được xử lý và upload nền; cột avatar đổi khi upload xong, response trả về avatar hiện tại
     @Override
-    @Transactional
     public UserResponseDTO updateAvatar(MultipartFile file) {
         if (file == null || file.isEmpty()) {
             throw new RuntimeException("File avatar không hợp lệ");
         }
-        try {
-            Map uploadResult = cloudinary.uploader().upload(file.getBytes(), ObjectUtils.asMap("folder", "avatars"));
-            String url = (String) uploadResult.get("secure_url");
-            User user = getCurrentUser();
-            user.setAvatar(url);
-            user = userRepository.save(user);
-            return UserMapper.toDTO(user);
-        } catch (Exception e) {
-            throw new RuntimeException("Tải ảnh lên Cloudinary thất bại: " + e.getMessage());
-        }
+        avatarUploadService.submit(getCurrentUserId(), file);
+        return UserMapper.toDTO(getCurrentUser());
     }
 
     @Override
@@ -235,6 +237,7 @@ public class UserServiceImpl implements UserService {
         // Cập nhật mật khẩu mới
         user.setPasswordHash(passwordEncoder.encode(request.getNewPassword()));
         userRepository.save(user);
+        principalCache.invalidate(user.getEmail());
         
         log.info("Password changed for user: {}", user.getEmail());
     }
@@ -267,12 +270,10 @@ public class UserServiceImpl implements UserService {
         user.setPasswordHash(passwordEncoder.encode(request.getNewPassword()));
         user.setEnabled(true);
         userRepository.save(user);
+        principalCache.invalidate(user.getEmail());
         
         // Xóa OTP sau khi reset password thành công
-        Otp otp = otpRepository.findByUser(user).orElse(null);
-        if (otp != null) {
-            otpRepository.delete(otp);
-        }
+        otpService.deleteOtp(user);
         
         log.info("Password reset successfully for user: {}", request.getPhoneNumber());
     }
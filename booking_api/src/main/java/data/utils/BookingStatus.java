@@ -1,5 +1,14 @@
 package data.utils;
 
 public enum BookingStatus {
-    PENDING,CONFIRMED,CANCELLED
+    PENDING, CONFIRMED, CANCELLED;
+
+    // PENDING -> CONFIRMED | CANCELLED, CONFIRMED -> CANCELLED; CANCELLED là trạng thái cuối
+    public boolean canTransitionTo(BookingStatus target) {
+        return switch (this) {
+            case PENDING -> target == CONFIRMED || target == CANCELLED;
+            case CONFIRMED -> target == CANCELLED;
+            case CANCELLED -> false;
+        };
+    }
 }
@@ -0,0 +1,25 @@
+package data.utils;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+public final class CursorPaging {
+
+    public static final int DEFAULT_PAGE_SIZE = 20;
+    public static final int MAX_PAGE_SIZE = 100;
+
+    private CursorPaging() {
+    }
+
+    public static int clampSize(Integer size) {
+        if (size == null || size <= 0) {
+            return DEFAULT_PAGE_SIZE;
+        }
+        return Math.min(size, MAX_PAGE_SIZE);
+    }
+
+    // Lấy dư một phần tử để biết còn trang sau hay không
+    public static Pageable probe(int size) {
+        return PageRequest.of(0, size + 1);
+    }
+}
@@ -0,0 +1,31 @@
+package data.utils;
+
+// Sinh URL biến thể ảnh bằng transformation của Cloudinary (chèn ngay sau /image/upload/)
+public final class ImageVariants {
+
+    // Đủ nét cho thẻ danh sách trên màn hình điện thoại mật độ 2x-3x
+    public static final int THUMBNAIL_WIDTH = 640;
+
+    private static final String CLOUDINARY_HOST = "res.cloudinary.com";
+    private static final String UPLOAD_SEGMENT = "/image/upload/";
+
+    private ImageVariants() {
+    }
+
+    public static String thumbnail(String imageUrl) {
+        return limitWidth(imageUrl, THUMBNAIL_WIDTH);
+    }
+
+    // c_limit chỉ thu nhỏ, không phóng to ảnh nhỏ hơn width; URL không phải Cloudinary thì giữ nguyên
+    public static String limitWidth(String imageUrl, int width) {
+        if (imageUrl == null || !imageUrl.contains(CLOUDINARY_HOST)) {
+            return imageUrl;
+        }
+        int index = imageUrl.indexOf(UPLOAD_SEGMENT);
+        if (index < 0) {
+            return imageUrl;
+        }
+        int insertAt = index + UPLOAD_SEGMENT.length();
+        return imageUrl.substring(0, insertAt) + "c_limit,w_" + width + ",q_auto,f_auto/" + imageUrl.substring(insertAt);
+    }
+}
@@ -0,0 +1,46 @@
+package data.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+
+import data.dto.response.RoomResponseDTO;
+
+class VersionedCopyingCacheTest {
+
+    private final Cache cache = new VersionedCopyingCache(new ConcurrentMapCache(CacheConfig.ROOM_DETAIL), CacheConfig::copyDetail);
+
+    @Test
+    void callersNeverShareTheCachedInstance() {
+        RoomResponseDTO room = RoomResponseDTO.builder().roomId(1).rating(4.0).imageUrls(new ArrayList<>(List.of("a"))).build();
+        cache.put(1, room);
+        room.setRating(1.0);
+
+        RoomResponseDTO first = cache.get(1, RoomResponseDTO.class);
+        first.setRating(2.0);
+        RoomResponseDTO second = cache.get(1, RoomResponseDTO.class);
+
+        assertNotSame(first, second);
+        assertEquals(4.0, second.getRating());
+        assertThrows(UnsupportedOperationException.class, () -> second.getImageUrls().add("b"));
+    }
+
+    @Test
+    void valueLoadedBeforeEvictIsNotPutBack() {
+        assertNull(cache.get(1));
+        cache.evict(1);
+        cache.put(1, RoomResponseDTO.builder().roomId(1).build());
+
+        assertNull(cache.get(1));
+        cache.put(1, RoomResponseDTO.builder().roomId(1).build());
+        assertEquals(1, cache.get(1, RoomResponseDTO.class).getRoomId());
+    }
+}
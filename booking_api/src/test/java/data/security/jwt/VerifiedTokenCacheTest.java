@@ -0,0 +1,43 @@
+package data.security.jwt;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.Date;
+
+import org.junit.jupiter.api.Test;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+
+class VerifiedTokenCacheTest {
+
+    private static final Duration MAX_TTL = Duration.ofMillis(50);
+
+    private final JWTProvider jwtProvider = mock(JWTProvider.class);
+    private final VerifiedTokenCache cache = new VerifiedTokenCache(jwtProvider, true, 10, MAX_TTL);
+
+    @Test
+    void revokedTokenStaysRejectedAfterMaxTtl() throws InterruptedException {
+        Claims claims = Jwts.claims().setSubject("user@example.com");
+        claims.setExpiration(new Date(System.currentTimeMillis() + Duration.ofHours(1).toMillis()));
+        when(jwtProvider.parseClaims("token")).thenReturn(claims);
+
+        assertNotNull(cache.resolve("token"));
+        cache.revoke("token");
+        // Nhiều lần logout hơn max-size không đẩy token ra khỏi danh sách revoked
+        for (int i = 0; i < 100; i++) {
+            Claims other = Jwts.claims().setSubject("other" + i);
+            other.setExpiration(claims.getExpiration());
+            when(jwtProvider.parseClaims("other" + i)).thenReturn(other);
+            cache.revoke("other" + i);
+        }
+        Thread.sleep(MAX_TTL.multipliedBy(3).toMillis());
+        cache.purgeExpiredRevocations();
+
+        assertNull(cache.resolve("token"));
+    }
+}
@@ -0,0 +1,88 @@
+package data.security.ratelimit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.servlet.ServletException;
+
+class RateLimitFilterTest {
+
+    private final RateLimitFilter filter = new RateLimitFilter(new ObjectMapper().findAndRegisterModules(), true, 1000,
+            1000, Duration.ofMinutes(1),
+            3, Duration.ofMinutes(10),
+            5, Duration.ofMinutes(5),
+            10, Duration.ofMinutes(5));
+
+    @Test
+    void chunkedRequestsStillCountAgainstPhoneBucket() throws ServletException, IOException {
+        for (int i = 0; i < 3; i++) {
+            MockFilterChain chain = new MockFilterChain();
+            MockHttpServletResponse response = send(chunked("/api/v1/auth/resend-otp", "{\"phoneNumber\":\"0912345678\"}"), chain);
+            assertEquals(200, response.getStatus());
+            assertNotNull(chain.getRequest());
+        }
+
+        MockFilterChain chain = new MockFilterChain();
+        MockHttpServletResponse response = send(chunked("/api/v1/auth/resend-otp", "{\"phoneNumber\":\"0912345678\"}"), chain);
+        assertEquals(429, response.getStatus());
+        assertNull(chain.getRequest());
+    }
+
+    @Test
+    void oversizedChunkedBodyIsRejected() throws ServletException, IOException {
+        String padding = "x".repeat(RateLimitFilter.MAX_BODY_BYTES);
+        MockFilterChain chain = new MockFilterChain();
+        MockHttpServletResponse response =
+                send(chunked("/api/v1/auth/resend-otp", "{\"phoneNumber\":\"0912345678\",\"pad\":\"" + padding + "\"}"), chain);
+
+        assertEquals(413, response.getStatus());
+        assertNull(chain.getRequest());
+    }
+
+    @Test
+    void resetPasswordAttemptsAreLimitedPerPhone() throws ServletException, IOException {
+        String body = "{\"phoneNumber\":\"0912345678\",\"otp\":\"0000\",\"newPassword\":\"secret123\"}";
+        for (int i = 0; i < 5; i++) {
+            assertEquals(200, send(chunked("/api/v1/auth/reset-password", body), new MockFilterChain()).getStatus());
+        }
+        assertEquals(429, send(chunked("/api/v1/auth/reset-password", body), new MockFilterChain()).getStatus());
+    }
+
+    private MockHttpServletResponse send(MockHttpServletRequest request, MockFilterChain chain)
+            throws ServletException, IOException {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, chain);
+        return response;
+    }
+
+    // Transfer-Encoding: chunked -> không có Content-Length
+    private static MockHttpServletRequest chunked(String uri, String json) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", uri) {
+            @Override
+            public int getContentLength() {
+                return -1;
+            }
+
+            @Override
+            public long getContentLengthLong() {
+                return -1;
+            }
+        };
+        request.addHeader("Transfer-Encoding", "chunked");
+        request.setContentType("application/json");
+        request.setContent(json.getBytes(StandardCharsets.UTF_8));
+        return request;
+    }
+}
@@ -0,0 +1,110 @@
+package data.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.after;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import javax.imageio.ImageIO;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockMultipartFile;
+
+import com.cloudinary.Cloudinary;
+import com.cloudinary.Uploader;
+
+import data.repository.UserRepository;
+
+/**
+ * Chạy AvatarUploadService với uploader Cloudinary giả lập: ghi lại file nhận được thay vì gọi mạng.
+ */
+class AvatarUploadServiceTest {
+
+    private static final String UPLOADED_URL = "https://res.cloudinary.com/demo/image/upload/avatars/a.jpg";
+
+    private final Cloudinary cloudinary = mock(Cloudinary.class);
+    private final Uploader uploader = mock(Uploader.class);
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final List<BufferedImage> uploadedImages = new CopyOnWriteArrayList<>();
+    private final List<File> uploadedFiles = new CopyOnWriteArrayList<>();
+    private AvatarUploadService service;
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        if (service != null) {
+            service.stop();
+        }
+    }
+
+    @Test
+    void downscalesAndUploadsThenUpdatesAvatarColumn() throws Exception {
+        stubUploader();
+        service = new AvatarUploadService(cloudinary, userRepository, 512, 0.85f, 1, 4);
+
+        service.submit(7, pngUpload(2000, 1000));
+
+        verify(userRepository, timeout(5000)).updateAvatar(7, UPLOADED_URL);
+        assertThat(uploadedImages).hasSize(1);
+        assertThat(uploadedImages.get(0).getWidth()).isEqualTo(512);
+        assertThat(uploadedImages.get(0).getHeight()).isEqualTo(256);
+        service.stop();
+        assertThat(uploadedFiles).allSatisfy(file -> assertThat(file).doesNotExist());
+    }
+
+    @Test
+    void keepsSmallImagesAtTheirOriginalSize() throws Exception {
+        stubUploader();
+        service = new AvatarUploadService(cloudinary, userRepository, 512, 0.85f, 1, 4);
+
+        service.submit(7, pngUpload(300, 200));
+
+        verify(userRepository, timeout(5000)).updateAvatar(7, UPLOADED_URL);
+        assertThat(uploadedImages.get(0).getWidth()).isEqualTo(300);
+        assertThat(uploadedImages.get(0).getHeight()).isEqualTo(200);
+    }
+
+    @Test
+    void leavesAvatarUntouchedWhenUploadFails() throws Exception {
+        when(cloudinary.uploader()).thenReturn(uploader);
+        when(uploader.upload(any(), anyMap())).thenThrow(new IOException("network down"));
+        service = new AvatarUploadService(cloudinary, userRepository, 512, 0.85f, 1, 4);
+
+        service.submit(7, pngUpload(800, 800));
+
+        verify(uploader, timeout(5000)).upload(any(), anyMap());
+        verify(userRepository, after(200).never()).updateAvatar(anyInt(), anyString());
+    }
+
+    private void stubUploader() throws IOException {
+        when(cloudinary.uploader()).thenReturn(uploader);
+        when(uploader.upload(any(), anyMap())).thenAnswer(invocation -> {
+            File file = invocation.getArgument(0);
+            uploadedFiles.add(file);
+            uploadedImages.add(ImageIO.read(file));
+            return Map.of("secure_url", UPLOADED_URL);
+        });
+    }
+
+    private MockMultipartFile pngUpload(int width, int height) throws IOException {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", output);
+        return new MockMultipartFile("file", "avatar.png", "image/png", output.toByteArray());
+    }
+}
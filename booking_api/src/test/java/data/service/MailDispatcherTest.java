@@ -0,0 +1,185 @@
+package data.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.Properties;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+
+import jakarta.mail.MessagingException;
+
+/**
+ * Chạy MailDispatcher với JavaMailSenderImpl thật trỏ tới một SMTP server giả lập trong process.
+ */
+class MailDispatcherTest {
+
+    private FakeSmtpServer server;
+    private MailDispatcher dispatcher;
+
+    @AfterEach
+    void tearDown() throws IOException {
+        if (dispatcher != null) {
+            dispatcher.stop();
+        }
+        if (server != null) {
+            server.close();
+        }
+    }
+
+    @Test
+    void sendsQueuedMailsAsOneBatchOverOneConnection() throws Exception {
+        server = new FakeSmtpServer();
+        dispatcher = new MailDispatcher(mailSender(server.port()), "noreply@booking.local", 100, 1, 20, 3, Duration.ofMillis(10));
+
+        for (int i = 0; i < 10; i++) {
+            assertThat(dispatcher.offer(new MailDispatcher.MailJob("user" + i + "@example.com", "OTP", "code " + i, null, 0))).isTrue();
+        }
+        dispatcher.start();
+
+        await(() -> server.messages.size() == 10);
+        assertThat(server.connections.get()).isEqualTo(1);
+        assertThat(server.messages).anyMatch(m -> m.contains("code 7"));
+    }
+
+    @Test
+    void runsFailureHandlerAfterRetriesAreExhausted() throws Exception {
+        int closedPort;
+        try (ServerSocket socket = new ServerSocket(0, 1, InetAddress.getLoopbackAddress())) {
+            closedPort = socket.getLocalPort();
+        }
+        dispatcher = new MailDispatcher(mailSender(closedPort), "noreply@booking.local", 100, 1, 20, 3, Duration.ofMillis(10));
+        dispatcher.start();
+
+        CountDownLatch fallback = new CountDownLatch(1);
+        dispatcher.offer(new MailDispatcher.MailJob("user@example.com", "OTP", "1234", fallback::countDown, 0));
+
+        assertThat(fallback.await(10, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    void emailServiceRejectsWhenQueueIsFull() throws Exception {
+        server = new FakeSmtpServer();
+        dispatcher = new MailDispatcher(mailSender(server.port()), "noreply@booking.local", 1, 1, 20, 3, Duration.ofMillis(10));
+        EmailService emailService = new EmailService(dispatcher);
+
+        emailService.sendOtpEmail("first@example.com", "1111");
+
+        assertThatThrownBy(() -> emailService.sendOtpEmail("second@example.com", "2222"))
+                .isInstanceOf(MessagingException.class);
+    }
+
+    private static JavaMailSenderImpl mailSender(int port) {
+        JavaMailSenderImpl sender = new JavaMailSenderImpl();
+        sender.setHost("127.0.0.1");
+        sender.setPort(port);
+        Properties props = new Properties();
+        props.put("mail.smtp.connectiontimeout", "2000");
+        props.put("mail.smtp.timeout", "2000");
+        sender.setJavaMailProperties(props);
+        return sender;
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) {
+                throw new AssertionError("Condition not met within timeout");
+            }
+            Thread.sleep(20);
+        }
+    }
+
+    /** SMTP tối giản: chấp nhận mọi lệnh cơ bản và lưu nội dung DATA. */
+    private static class FakeSmtpServer implements AutoCloseable {
+        private final ServerSocket serverSocket;
+        private final ExecutorService pool = Executors.newCachedThreadPool();
+        final AtomicInteger connections = new AtomicInteger();
+        final List<String> messages = new CopyOnWriteArrayList<>();
+
+        FakeSmtpServer() throws IOException {
+            serverSocket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+            pool.submit(this::acceptLoop);
+        }
+
+        int port() {
+            return serverSocket.getLocalPort();
+        }
+
+        private void acceptLoop() {
+            while (!serverSocket.isClosed()) {
+                try {
+                    Socket socket = serverSocket.accept();
+                    connections.incrementAndGet();
+                    pool.submit(() -> handle(socket));
+                } catch (IOException e) {
+                    return;
+                }
+            }
+        }
+
+        private void handle(Socket socket) {
+            try (socket;
+                 BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+                 Writer out = new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.US_ASCII)) {
+                reply(out, "220 localhost ESMTP");
+                String line;
+                while ((line = in.readLine()) != null) {
+                    String command = (line.length() > 4 ? line.substring(0, 4) : line).toUpperCase(Locale.ROOT);
+                    switch (command) {
+                        case "EHLO", "HELO" -> reply(out, "250 localhost");
+                        case "MAIL", "RCPT", "RSET", "NOOP" -> reply(out, "250 OK");
+                        case "DATA" -> {
+                            reply(out, "354 End data with <CR><LF>.<CR><LF>");
+                            StringBuilder body = new StringBuilder();
+                            while ((line = in.readLine()) != null && !line.equals(".")) {
+                                body.append(line).append('\n');
+                            }
+                            messages.add(body.toString());
+                            reply(out, "250 OK");
+                        }
+                        case "QUIT" -> {
+                            reply(out, "221 Bye");
+                            return;
+                        }
+                        default -> reply(out, "502 Command not implemented");
+                    }
+                }
+            } catch (IOException ignored) {
+                // client đóng kết nối
+            }
+        }
+
+        private static void reply(Writer out, String line) throws IOException {
+            out.write(line + "\r\n");
+            out.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            serverSocket.close();
+            pool.shutdownNow();
+        }
+    }
+}
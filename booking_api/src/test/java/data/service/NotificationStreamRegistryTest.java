@@ -0,0 +1,64 @@
+package data.service;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+class NotificationStreamRegistryTest {
+
+    private static final int MAX_BACKLOG = 5;
+
+    private final NotificationStreamRegistry registry =
+            new NotificationStreamRegistry(Duration.ofMinutes(1), 2, 100, MAX_BACKLOG);
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        registry.shutdown();
+    }
+
+    @Test
+    void stalledClientDoesNotBlockOthersAndIsDroppedWhenBacklogIsFull() throws InterruptedException {
+        CountDownLatch stalledWriting = new CountDownLatch(1);
+        registry.attach(1, new SseEmitter() {
+            @Override
+            public void send(SseEventBuilder builder) throws IOException {
+                stalledWriting.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }, 0);
+        assertTrue(stalledWriting.await(5, TimeUnit.SECONDS));
+
+        for (int i = 0; i <= MAX_BACKLOG; i++) {
+            registry.pushUnreadCount(1, i);
+        }
+        assertFalse(registry.isConnected(1));
+
+        CountDownLatch delivered = new CountDownLatch(3);
+        registry.attach(2, new SseEmitter() {
+            @Override
+            public void send(SseEventBuilder builder) {
+                delivered.countDown();
+            }
+        }, 0);
+        registry.pushNotifications(2, List.of(), 1);
+        registry.pushUnreadCount(2, 2);
+
+        assertTrue(delivered.await(5, TimeUnit.SECONDS));
+        assertTrue(registry.isConnected(2));
+    }
+}
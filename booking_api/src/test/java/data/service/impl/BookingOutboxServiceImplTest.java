@@ -0,0 +1,84 @@
+package data.service.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import data.entity.BookingOutbox;
+import data.entity.Notification;
+import data.repository.BookingOutboxRepository;
+import data.repository.UserRepository;
+import data.service.NotificationService;
+
+/**
+ * Một sự kiện hỏng làm lô bị rollback: các sự kiện còn lại vẫn được dispatch từng cái, sự kiện hỏng bị ghi nhận lỗi.
+ */
+class BookingOutboxServiceImplTest {
+
+    private static final int MAX_ATTEMPTS = 5;
+
+    private final BookingOutboxRepository outboxRepository = mock(BookingOutboxRepository.class);
+    private final NotificationService notificationService = mock(NotificationService.class);
+    private final BookingOutboxServiceImpl service;
+
+    BookingOutboxServiceImplTest() {
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        service = new BookingOutboxServiceImpl(outboxRepository, mock(UserRepository.class), notificationService,
+                new TransactionTemplate(transactionManager), 3, MAX_ATTEMPTS, Duration.ofDays(7));
+    }
+
+    @Test
+    void badEventDoesNotBlockTheRestOfTheBatch() {
+        BookingOutbox good1 = event(1L, "ok");
+        BookingOutbox bad = event(2L, "bad");
+        BookingOutbox good2 = event(3L, "ok");
+        when(outboxRepository.lockPending(3)).thenReturn(List.of(good1, bad, good2));
+        when(outboxRepository.findPendingIds(3)).thenReturn(List.of(1L, 2L, 3L));
+        when(outboxRepository.lockPendingById(1L)).thenReturn(List.of(good1));
+        when(outboxRepository.lockPendingById(2L)).thenReturn(List.of(bad));
+        when(outboxRepository.lockPendingById(3L)).thenReturn(List.of(good2));
+        doAnswer(invocation -> {
+            List<Notification> notifications = invocation.getArgument(0);
+            if (notifications.stream().anyMatch(n -> "bad".equals(n.getTitle()))) {
+                throw new IllegalStateException("bad row");
+            }
+            return null;
+        }).when(notificationService).createNotifications(anyList());
+
+        assertThat(service.dispatchPending()).isEqualTo(3);
+
+        verify(outboxRepository).markProcessed(eq(List.of(1L)), any());
+        verify(outboxRepository).markProcessed(eq(List.of(3L)), any());
+        verify(outboxRepository, never()).markProcessed(eq(List.of(2L)), any());
+        verify(outboxRepository).recordFailure(eq(2L), eq(MAX_ATTEMPTS), any());
+        verify(outboxRepository, never()).recordFailure(eq(1L), anyInt(), any());
+    }
+
+    private static BookingOutbox event(Long id, String title) {
+        return BookingOutbox.builder()
+                .outboxId(id)
+                .bookingId(id.intValue())
+                .userId(1)
+                .eventType("BOOKING_CONFIRMED")
+                .title(title)
+                .message(title)
+                .attempts(0)
+                .build();
+    }
+}
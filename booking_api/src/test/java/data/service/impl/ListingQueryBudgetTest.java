@@ -0,0 +1,194 @@
+package data.service.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Supplier;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import data.dto.response.BookingResponseDTO;
+import data.dto.response.FavoriteResponseDTO;
+import data.dto.response.RoomResponseDTO;
+import data.entity.Bookings;
+import data.entity.DetailCacheListener;
+import data.entity.Favorite;
+import data.entity.Hotel;
+import data.entity.Review;
+import data.entity.Room;
+import data.entity.RoomImage;
+import data.entity.RoomRating;
+import data.entity.User;
+import data.repository.BookingRepository;
+import data.repository.FavoriteRepository;
+import data.repository.HotelRepository;
+import data.repository.ReviewRepository;
+import data.repository.RoomRatingRepository;
+import data.repository.RoomRepository;
+import data.service.BookingOutboxService;
+import data.service.DetailCacheInvalidator;
+import data.service.RoomAvailabilityService;
+import data.service.UserService;
+import data.utils.BookingStatus;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Đếm số câu SQL thật (Hibernate Statistics trên H2) của các API danh sách với 200 phòng.
+ * Lazy load như room.getImages() hay room.getHotel() cũng được tính, nên N+1 sẽ làm test thất bại.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.show-sql=false"
+})
+@Import(DetailCacheListener.class)
+class ListingQueryBudgetTest {
+
+    private static final int ROOM_COUNT = 200;
+    private static final int HOTEL_COUNT = 20;
+    private static final int QUERY_BUDGET = 4;
+
+    @MockitoBean
+    private DetailCacheInvalidator detailCacheInvalidator;
+
+    @Autowired
+    private TestEntityManager entityManager;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private RoomRepository roomRepository;
+    @Autowired
+    private HotelRepository hotelRepository;
+    @Autowired
+    private ReviewRepository reviewRepository;
+    @Autowired
+    private RoomRatingRepository roomRatingRepository;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private FavoriteRepository favoriteRepository;
+
+    private RoomServiceImpl roomService;
+    private BookingServiceImpl bookingService;
+    private FavoriteServiceImpl favoriteService;
+    private Statistics statistics;
+    private Integer userId;
+    private Integer hotelId;
+
+    @BeforeEach
+    void setUp() {
+        RoomRatingServiceImpl roomRatingService = new RoomRatingServiceImpl(roomRatingRepository, reviewRepository);
+
+        roomService = new RoomServiceImpl();
+        ReflectionTestUtils.setField(roomService, "roomRepository", roomRepository);
+        ReflectionTestUtils.setField(roomService, "hotelRepository", hotelRepository);
+        ReflectionTestUtils.setField(roomService, "roomRatingService", roomRatingService);
+
+        bookingService = new BookingServiceImpl(bookingRepository, roomRepository,
+                mock(UserService.class), mock(BookingOutboxService.class), roomRatingService,
+                mock(RoomAvailabilityService.class), mock(TransactionTemplate.class));
+        favoriteService = new FavoriteServiceImpl(favoriteRepository, roomRepository,
+                roomRatingService, mock(UserService.class));
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        seed();
+    }
+
+    private void seed() {
+        User owner = entityManager.persist(User.builder().fullName("Owner").email("owner@example.com")
+                .passwordHash("x").enabled(true).build());
+        User guest = entityManager.persist(User.builder().fullName("Guest").email("guest@example.com")
+                .passwordHash("x").enabled(true).build());
+        userId = guest.getUserId();
+
+        Hotel[] hotels = new Hotel[HOTEL_COUNT];
+        for (int i = 0; i < HOTEL_COUNT; i++) {
+            hotels[i] = entityManager.persist(Hotel.builder().hotelName("Hotel " + i).city("Hanoi").owner(owner).build());
+        }
+        hotelId = hotels[0].getHotelId();
+
+        LocalDate today = LocalDate.now();
+        for (int i = 0; i < ROOM_COUNT; i++) {
+            Room room = entityManager.persist(Room.builder().hotel(hotels[i % HOTEL_COUNT]).roomType("Deluxe")
+                    .price(100.0).capacity(2).build());
+            entityManager.persist(RoomImage.builder().room(room).imageUrl("https://example.com/" + i + "-a.jpg").build());
+            entityManager.persist(RoomImage.builder().room(room).imageUrl("https://example.com/" + i + "-b.jpg").build());
+
+            // Một nửa số phòng có dòng tổng hợp, nửa còn lại phải tính từ reviews
+            entityManager.persist(Review.builder().room(room).user(guest).rating(4).createdAt(LocalDateTime.now()).build());
+            if (i % 2 == 0) {
+                entityManager.persist(RoomRating.builder().roomId(room.getRoomId()).reviewCount(1).ratingSum(4L).build());
+            }
+
+            entityManager.persist(Bookings.builder().user(guest).room(room)
+                    .checkIn(i % 2 == 0 ? today.plusDays(1) : today.minusDays(3))
+                    .checkOut(i % 2 == 0 ? today.plusDays(2) : today.minusDays(2))
+                    .status(BookingStatus.CONFIRMED).totalPrice(100.0)
+                    .adultsCount(1).childrenCount(0).infantsCount(0).build());
+            entityManager.persist(Favorite.builder().user(guest).room(room).createdAt(LocalDateTime.now()).build());
+        }
+        entityManager.flush();
+    }
+
+    @Test
+    void roomListingsStayWithinQueryBudget() {
+        List<RoomResponseDTO> all = withinBudget(() -> roomService.getAllRooms());
+        assertThat(all).hasSize(ROOM_COUNT);
+        assertThat(all).allSatisfy(room -> {
+            assertThat(room.getThumbnailUrl()).isNotNull();
+            assertThat(room.getHotelName()).isNotNull();
+            assertThat(room.getRating()).isEqualTo(4.0);
+        });
+
+        assertThat(withinBudget(() -> roomService.getRoomsByHotelId(hotelId))).hasSize(ROOM_COUNT / HOTEL_COUNT);
+        assertThat(withinBudget(() -> roomService.searchRooms("Deluxe"))).hasSize(ROOM_COUNT);
+    }
+
+    @Test
+    void bookingListingsStayWithinQueryBudget() {
+        List<BookingResponseDTO> all = withinBudget(() -> bookingService.getUserBookings(userId));
+        assertThat(all).hasSize(ROOM_COUNT);
+        assertThat(all).allSatisfy(booking -> {
+            assertThat(booking.getRoomImageUrl()).isNotNull();
+            assertThat(booking.getHotelName()).isNotNull();
+            assertThat(booking.getRating()).isEqualTo(4.0);
+        });
+
+        assertThat(withinBudget(() -> bookingService.getUpcomingBookings(userId))).hasSize(ROOM_COUNT / 2);
+        assertThat(withinBudget(() -> bookingService.getPastBookings(userId))).hasSize(ROOM_COUNT / 2);
+    }
+
+    @Test
+    void favoriteListingStaysWithinQueryBudget() {
+        List<FavoriteResponseDTO> favorites = withinBudget(() -> favoriteService.getUserFavorites(userId));
+        assertThat(favorites).hasSize(ROOM_COUNT);
+        assertThat(favorites).allSatisfy(favorite -> {
+            assertThat(favorite.getRoomImageUrl()).isNotNull();
+            assertThat(favorite.getRating()).isEqualTo(4.0);
+        });
+    }
+
+    // Bắt đầu từ persistence context rỗng để mọi lazy load đều phát sinh SQL thật
+    private <T> T withinBudget(Supplier<T> listing) {
+        entityManager.clear();
+        statistics.clear();
+        T result = listing.get();
+        assertThat(statistics.getPrepareStatementCount())
+                .as("SQL statements for a listing of %d rooms", ROOM_COUNT)
+                .isLessThanOrEqualTo(QUERY_BUDGET);
+        return result;
+    }
+}